@@ -0,0 +1,99 @@
+package poker.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import poker.Card;
+import poker.Hand;
+import poker.player.bots.MoveCache;
+import poker.player.bots.MoveList;
+import poker.player.bots.PlayerAIBase;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Bot move generation on random 13 card deals; scores are per deal.
+ * The deals fit in the shared MoveCache, so with it on every call after
+ * warmup is a cache hit; cached=false measures enumeration itself.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BotBenchmark {
+	static final int DEALS = 256;
+
+	@Param({ "false", "true" })
+	public boolean cached;
+
+	private List<TreeSet<Card>> holdings;
+	private IndexingBot bot = new IndexingBot();
+
+	@Setup
+	public void setup() {
+		holdings = Deals.holdings(new Random(Deals.SEED), DEALS);
+		MoveCache.setShared(cached ? new MoveCache(MoveCache.DEFAULT_SIZE) : null);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DEALS)
+	public void populateValidHands(Blackhole bh) {
+		for (int i = 0; i < DEALS; i++) {
+			bot.populate(holdings.get(i));
+			bh.consume(bot.getHands());
+		}
+	}
+
+	/**
+	 * Packed moves only, no Hand objects.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(DEALS)
+	public void updateValidHands(Blackhole bh) {
+		for (int i = 0; i < DEALS; i++) {
+			bot.update(holdings.get(i));
+			bh.consume(bot.moves());
+		}
+	}
+
+	/**
+	 * Exposes the protected move generator.
+	 */
+	static class IndexingBot extends PlayerAIBase {
+		void populate(TreeSet<Card> cards) {
+			populateValidHands(cards);
+		}
+
+		void update(TreeSet<Card> cards) {
+			updateValidHands(cards);
+		}
+
+		MoveList[] moves() {
+			return moves;
+		}
+
+		@Override
+		public Hand getNextHand(TreeSet<Card> cards, Hand last, ArrayList<Hand> previous) {
+			return null;
+		}
+	}
+}
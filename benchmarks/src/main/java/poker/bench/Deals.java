@@ -0,0 +1,46 @@
+package poker.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import poker.Card;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Reproducible card data for the benchmarks.
+ */
+
+final class Deals {
+	static final long SEED = 42L;
+
+	private Deals() {
+	}
+
+	/**
+	 * Random 13 card holdings.
+	 */
+	static List<TreeSet<Card>> holdings(Random rand, int count) {
+		List<TreeSet<Card>> ret = new ArrayList<TreeSet<Card>>();
+		List<Card> deck = new ArrayList<Card>(Card.getAllCards());
+		Collections.sort(deck);
+
+		for (int i = 0; i < count; i++) {
+			Collections.shuffle(deck, rand);
+			ret.add(new TreeSet<Card>(deck.subList(0, 13)));
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Random 1 to 5 card subsets of a holding.
+	 */
+	static List<Card> subset(Random rand, TreeSet<Card> holding) {
+		List<Card> cards = new ArrayList<Card>(holding);
+		Collections.shuffle(cards, rand);
+		return new ArrayList<Card>(cards.subList(0, rand.nextInt(5) + 1));
+	}
+}
@@ -0,0 +1,54 @@
+package poker.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import poker.Deck;
+import poker.Game;
+import poker.player.Player;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.RandomBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * A full game (deal and play out) for 4 bots; scores are per game.
+ * Games are seeded so every run plays the same deals.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+	private List<Player> players;
+	private long game;
+
+	@Setup
+	public void setup() {
+		players = Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", new MatthewBot()),
+			new Player(Player.BOT, Player.EAST, "East", new RandomBot()),
+			new Player(Player.BOT, Player.SOUTH, "South", new MatthewBot()),
+			new Player(Player.BOT, Player.WEST, "West", new RandomBot()));
+	}
+
+	@Benchmark
+	public List<Player> run() {
+		// same sequence of deals on every run
+		return new Game(players, Deck.deriveSeed(Deals.SEED, game++)).run();
+	}
+}
@@ -0,0 +1,88 @@
+package poker.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import poker.GameState;
+import poker.PackedHand;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * GameState transitions: a whole game applied then undone.
+ * Scores are per game, every move applied and then undone.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+	private GameState state;
+	private long[] moves;
+	private int count;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(Deals.SEED);
+		long[] cards = new long[4];
+		int[] deck = new int[52];
+		for (int i = 0; i < 52; i++) {
+			deck[i] = i;
+		}
+		for (int i = 51; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			int t = deck[i];
+			deck[i] = deck[j];
+			deck[j] = t;
+		}
+		for (int i = 0; i < 52; i++) {
+			cards[i % 4] |= 1L << deck[i];
+		}
+
+		// Record a game of lowest legal singles.
+		state = new GameState(cards);
+		moves = new long[1024];
+		while (!state.isGameOver()) {
+			long move = PackedHand.NONE;
+			for (long m = state.getCards(state.getToMove()); m != 0; m &= m - 1) {
+				long single = PackedHand.of(m & -m);
+				if (state.isLegal(single)) {
+					move = single;
+					break;
+				}
+			}
+
+			moves[count++] = move;
+			state.apply(move);
+		}
+
+		for (int i = count - 1; i >= 0; i--) {
+			state.undo(moves[i]);
+		}
+	}
+
+	@Benchmark
+	public long applyUndoGame() {
+		for (int i = 0; i < count; i++) {
+			state.apply(moves[i]);
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			state.undo(moves[i]);
+		}
+
+		return state.getCards(0);
+	}
+}
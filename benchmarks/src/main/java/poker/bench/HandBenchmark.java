@@ -0,0 +1,112 @@
+package poker.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import poker.Card;
+import poker.Hand;
+import poker.HandEvaluator;
+import poker.Rules;
+import poker.Utils;
+import poker.player.Player;
+import poker.player.bots.MatthewBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Hand construction, comparison and rule checks.
+ * Each invocation runs over a fixed batch of random hands; scores are per hand.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandBenchmark {
+	static final int BATCH = 1024;
+
+	private String[] strings = new String[BATCH];
+	private List<List<Card>> collections = new ArrayList<List<Card>>();
+	private Hand[] hands = new Hand[BATCH];
+	private Hand[] lasts = new Hand[BATCH];
+	private Player[] players = new Player[BATCH];
+	private long[] masks = new long[BATCH];
+	private byte[] types = new byte[BATCH];
+	private long[] scores = new long[BATCH];
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(Deals.SEED);
+		List<TreeSet<Card>> holdings = Deals.holdings(rand, BATCH);
+
+		for (int i = 0; i < BATCH; i++) {
+			TreeSet<Card> holding = holdings.get(i);
+			List<Card> cards = Deals.subset(rand, holding);
+
+			collections.add(cards);
+			strings[i] = Utils.getCardString(new TreeSet<Card>(cards));
+			hands[i] = new Hand(cards);
+			masks[i] = hands[i].getMask();
+			lasts[i] = new Hand(Deals.subset(rand, holding));
+
+			players[i] = new Player(Player.BOT, Player.NORTH, "bench", new MatthewBot());
+			players[i].setCards(holding);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void constructFromString(Blackhole bh) {
+		for (int i = 0; i < BATCH; i++) {
+			bh.consume(new Hand(strings[i]));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void constructFromCollection(Blackhole bh) {
+		for (int i = 0; i < BATCH; i++) {
+			bh.consume(new Hand(collections.get(i)));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void compareTo(Blackhole bh) {
+		for (int i = 0; i < BATCH; i++) {
+			bh.consume(hands[i].compareTo(lasts[i]));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void checkHand(Blackhole bh) {
+		for (int i = 0; i < BATCH; i++) {
+			bh.consume(Rules.checkHand(players[i], hands[i], lasts[i], null));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public long[] evaluateBatch() {
+		HandEvaluator.getDefault().evaluate(masks, types, scores);
+		return scores;
+	}
+}
@@ -1,8 +1,8 @@
 package poker;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Objects;
+import java.util.Collections;
 
 import poker.enums.*;
 
@@ -16,6 +16,8 @@ public class Card implements Comparable<Card> {
 	private Rank rank;
 	private Suit suit;
 	private long score;
+	private int index;
+	private String label;
 	   
 	/**
      * Construct from rank and suit. (Private)
@@ -24,15 +26,10 @@ public class Card implements Comparable<Card> {
 		rank = r;
 		suit = s;
 		score = rank.getScore() | suit.getScore();
+		index = (rank.getId() - 1) * 4 + (suit.getId() - 1);
+		label = rank.toString() + suit.toString();
 	}
 	
-	/**
-	 * Construct from string. (Private)
-	 */
-	private Card(String c) {
-		this(Rank.ofValue(c.substring(0, 1)), Suit.ofValue(c.substring(1, 2)));
-	}
-	 
 	/**
 	 * Get the suit
 	 */
@@ -54,11 +51,26 @@ public class Card implements Comparable<Card> {
 		return score;
 	}
 	   
+	/**
+	 * Get the card index (0 = 2c ... 51 = As).
+	 * Index order matches card order, rank first then suit.
+	 */
+	public int getIndex() {
+		return index;
+	}
+	
+	/**
+	 * Get the single bit for this card in a CardSet mask.
+	 */
+	public long getMask() {
+		return 1L << index;
+	}
+	   
 	/**
 	 * To String
 	 */
 	public String toString() {
-		return rank.toString() + suit.toString();
+		return label;
 	}
 	   
 	@Override
@@ -71,8 +83,7 @@ public class Card implements Comparable<Card> {
 			return false;
 		}
    
-		Card c = (Card) o;
-		return c.getSuit() == suit && c.getRank() == rank;
+		return ((Card) o).index == index;
 	}
 	   
 	/**
@@ -81,7 +92,7 @@ public class Card implements Comparable<Card> {
 	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(suit, rank);
+		return index;
 	}
 	
 	/**
@@ -98,24 +109,48 @@ public class Card implements Comparable<Card> {
 	
 	/**
 	 * Factory methods.
-	 * Dictionary of cards to avoid overhead.
+	 * Every card is created once and looked up by index, no maps.
 	 */
 	
 	public static Collection<Card> getAllCards() {
-		return cards.values();
+		return allCards;
 	}
 	
+	/**
+	 * Card from its label, e.g. "Td" (either case).
+	 * @return Card, or null if not a card
+	 */
 	public static Card ofValue(String cardStr) {
-		return cards.get(cardStr);
+		return cardStr.length() == 2 ? of(cardStr.charAt(0), cardStr.charAt(1)) : null;
+	}
+	
+	/**
+	 * Card from its rank and suit label characters (either case).
+	 * @return Card, or null if not a card
+	 */
+	public static Card of(char rank, char suit) {
+		Rank r = Rank.ofLabel(rank);
+		Suit s = Suit.ofLabel(suit);
+		return r == null || s == null ? null : of(r, s);
 	}
 	
-	private static HashMap<String, Card> cards = new HashMap<String, Card>();
+	public static Card of(Rank rank, Suit suit) {
+		return cardsByIndex[(rank.getId() - 1) * 4 + (suit.getId() - 1)];
+	}
+	
+	public static Card ofIndex(int index) {
+		return cardsByIndex[index];
+	}
+	
+	private static final Card[] cardsByIndex = new Card[52];
 	static {
-		for (int rank = 1; rank <= Rank.values().length; rank++) {
-			for (int suit = 1; suit <= Suit.values().length; suit++) {
-				Card c = new Card(Rank.ofValue(rank), Suit.ofValue(suit));
-				cards.put(c.toString(), c);
+		for (Rank r : Rank.values()) {
+			for (Suit s : Suit.values()) {
+				Card c = new Card(r, s);
+				cardsByIndex[c.index] = c;
 			}
 		}
 	}
-}
\ No newline at end of file
+	
+	private static final Collection<Card> allCards = Collections.unmodifiableList(Arrays.asList(cardsByIndex));
+}
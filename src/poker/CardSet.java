@@ -0,0 +1,314 @@
+package poker;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Set of cards packed into the low 52 bits of a long.
+ * Bit n is set when the card with Card.getIndex() == n is in the set, so
+ * higher bits are higher cards and iteration runs high card first,
+ * the same order as TreeSet<Card>.
+ * The static helpers work on raw masks for code that avoids the object.
+ */
+
+public class CardSet implements Iterable<Card> {
+	public static final long EMPTY = 0L;
+	public static final long ALL = (1L << 52) - 1;
+	public static final int ALL_RANKS = (1 << 13) - 1;
+	public static final int ALL_SUITS = (1 << 4) - 1;
+
+	// Every club, shift left by suit (0 - 3) for the other suits.
+	private static final long CLUBS = 0x1111111111111L;
+
+	// 16 bit chunk of a mask (4 ranks x 4 suits) -> ranks present (4 bits).
+	private static final byte[] CHUNK_RANKS = new byte[1 << 16];
+	static {
+		for (int chunk = 0; chunk < CHUNK_RANKS.length; chunk++) {
+			int ranks = 0;
+			for (int r = 0; r < 4; r++) {
+				if (((chunk >> (r * 4)) & 0xF) != 0) {
+					ranks |= 1 << r;
+				}
+			}
+
+			CHUNK_RANKS[chunk] = (byte) ranks;
+		}
+	}
+
+	private long mask;
+
+	/**
+	 * Construct empty set.
+	 */
+	public CardSet() {
+		mask = EMPTY;
+	}
+
+	/**
+	 * Construct from mask.
+	 */
+	public CardSet(long cardMask) {
+		mask = cardMask;
+	}
+
+	/**
+	 * Construct from cards.
+	 */
+	public CardSet(Iterable<Card> cards) {
+		mask = maskOf(cards);
+	}
+
+	/**
+	 * Get the card mask.
+	 */
+	public long getMask() {
+		return mask;
+	}
+
+	public int size() {
+		return Long.bitCount(mask);
+	}
+
+	public boolean isEmpty() {
+		return mask == EMPTY;
+	}
+
+	public boolean contains(Card c) {
+		return (mask & c.getMask()) != 0;
+	}
+
+	public boolean containsAll(CardSet other) {
+		return containsAll(mask, other.mask);
+	}
+
+	public boolean containsAll(long other) {
+		return containsAll(mask, other);
+	}
+
+	/**
+	 * Add a card.
+	 * @return true if the card was not already in the set
+	 */
+	public boolean add(Card c) {
+		long before = mask;
+		mask |= c.getMask();
+		return mask != before;
+	}
+
+	/**
+	 * Remove a card.
+	 * @return true if the card was in the set
+	 */
+	public boolean remove(Card c) {
+		long before = mask;
+		mask &= ~c.getMask();
+		return mask != before;
+	}
+
+	public void addAll(long other) {
+		mask |= other;
+	}
+
+	public void removeAll(long other) {
+		mask &= ~other;
+	}
+
+	public void clear() {
+		mask = EMPTY;
+	}
+
+	/**
+	 * Highest card, or null if empty.
+	 */
+	public Card first() {
+		return first(mask);
+	}
+
+	/**
+	 * Lowest card, or null if empty.
+	 */
+	public Card last() {
+		return last(mask);
+	}
+
+	/**
+	 * Copy to a TreeSet (for APIs that still take one).
+	 */
+	public TreeSet<Card> toTreeSet() {
+		return toTreeSet(mask);
+	}
+
+	/**
+	 * Iterate high card first.
+	 */
+	@Override
+	public Iterator<Card> iterator() {
+		return iterator(mask);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (!(o instanceof CardSet)) {
+			return false;
+		}
+
+		return ((CardSet) o).mask == mask;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(mask);
+	}
+
+	/**
+	 * Same format as TreeSet<Card>.toString(), i.e. [As, Kd].
+	 */
+	@Override
+	public String toString() {
+		return toTreeSet().toString();
+	}
+
+	// Helpers for raw masks.
+
+	public static long maskOf(Iterable<Card> cards) {
+		long m = EMPTY;
+		for (Card c : cards) {
+			m |= c.getMask();
+		}
+
+		return m;
+	}
+
+	public static boolean containsAll(long mask, long other) {
+		return (mask & other) == other;
+	}
+
+	public static int size(long mask) {
+		return Long.bitCount(mask);
+	}
+
+	/**
+	 * Index of the highest card, or -1 if empty.
+	 */
+	public static int highIndex(long mask) {
+		return 63 - Long.numberOfLeadingZeros(mask);
+	}
+
+	/**
+	 * Index of the lowest card, or -1 if empty.
+	 */
+	public static int lowIndex(long mask) {
+		return mask == EMPTY ? -1 : Long.numberOfTrailingZeros(mask);
+	}
+
+	/**
+	 * All four cards of a rank (0 = twos ... 12 = aces).
+	 */
+	public static long rankCards(int rank) {
+		return 0xFL << (rank * 4);
+	}
+
+	/**
+	 * All thirteen cards of a suit (0 = clubs ... 3 = spades).
+	 */
+	public static long suitCards(int suit) {
+		return CLUBS << suit;
+	}
+
+	/**
+	 * 13 bit mask of the ranks present (bit 0 = twos).
+	 */
+	public static int rankMask(long mask) {
+		return CHUNK_RANKS[(int) (mask & 0xFFFF)]
+			| (CHUNK_RANKS[(int) ((mask >>> 16) & 0xFFFF)] << 4)
+			| (CHUNK_RANKS[(int) ((mask >>> 32) & 0xFFFF)] << 8)
+			| (CHUNK_RANKS[(int) (mask >>> 48)] << 12);
+	}
+
+	/**
+	 * 4 bit mask of the suits present (bit 0 = clubs).
+	 */
+	public static int suitMask(long mask) {
+		int suits = 0;
+		for (int s = 0; s < 4; s++) {
+			if ((mask & (CLUBS << s)) != 0) {
+				suits |= 1 << s;
+			}
+		}
+
+		return suits;
+	}
+
+	/**
+	 * The n highest cards of a mask.
+	 */
+	public static long highest(long mask, int n) {
+		long ret = EMPTY;
+		for (int i = 0; i < n && mask != EMPTY; i++) {
+			long top = Long.highestOneBit(mask);
+			ret |= top;
+			mask &= ~top;
+		}
+
+		return ret;
+	}
+
+	/**
+	 * The n lowest cards of a mask.
+	 */
+	public static long lowest(long mask, int n) {
+		long ret = EMPTY;
+		for (int i = 0; i < n && mask != EMPTY; i++) {
+			long bottom = mask & -mask;
+			ret |= bottom;
+			mask &= ~bottom;
+		}
+
+		return ret;
+	}
+
+	public static Card first(long mask) {
+		return mask == EMPTY ? null : Card.ofIndex(highIndex(mask));
+	}
+
+	public static Card last(long mask) {
+		return mask == EMPTY ? null : Card.ofIndex(lowIndex(mask));
+	}
+
+	public static TreeSet<Card> toTreeSet(long mask) {
+		TreeSet<Card> ret = new TreeSet<Card>();
+		for (long m = mask; m != EMPTY; m &= m - 1) {
+			ret.add(Card.ofIndex(Long.numberOfTrailingZeros(m)));
+		}
+
+		return ret;
+	}
+
+	public static Iterator<Card> iterator(long mask) {
+		return new Iterator<Card>() {
+			private long remaining = mask;
+
+			@Override
+			public boolean hasNext() {
+				return remaining != EMPTY;
+			}
+
+			@Override
+			public Card next() {
+				if (remaining == EMPTY) {
+					throw new NoSuchElementException();
+				}
+
+				int index = highIndex(remaining);
+				remaining &= ~(1L << index);
+				return Card.ofIndex(index);
+			}
+		};
+	}
+}
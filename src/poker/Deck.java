@@ -1,8 +1,7 @@
 package poker;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
@@ -11,15 +10,33 @@ import java.util.Random;
 
 public class Deck {
 	private ArrayList<Card> deck = new ArrayList<Card>();
+	private SplittableRandom rand;
 	private int top;
 
-	private static final int SHUFFLE_COUNT = 1000;
-
 	/**
-	 * Construct the deck.
+	 * Construct the deck with an unseeded generator.
 	 */
 	public Deck() {
-		deck.addAll(Card.getAllCards());
+		this(new SplittableRandom());
+	}
+	
+	/**
+	 * Construct the deck with a seed, for reproducible deals.
+	 */
+	public Deck(long seed) {
+		this(new SplittableRandom(seed));
+	}
+	
+	/**
+	 * Construct the deck with a generator.
+	 * Use SplittableRandom.split() to give each deck its own stream.
+	 */
+	public Deck(SplittableRandom random) {
+		for (int i = 0; i < 52; i++) {
+			deck.add(Card.ofIndex(i));
+		}
+		
+		rand = random;
 		top = 0;
 	}
 	
@@ -41,20 +58,31 @@ public class Deck {
 
 	/**
 	 * Shuffle the deck.
+	 * Single Fisher-Yates pass, every ordering is equally likely.
 	 */
 	public void shuffle() {
 		top = 0;
-		Random rand = new Random(System.currentTimeMillis()); 
-		for (int i = 0; i < SHUFFLE_COUNT; i++) {
-			// Select random values in the deck to shuffle.
-			int pos1 = rand.nextInt(52);
-			int pos2 = rand.nextInt(52);
-
-			// Shuffle/Swap the deck.
-			Collections.swap(deck, pos1, pos2);
+		for (int i = deck.size() - 1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			deck.set(i, deck.set(j, deck.get(i)));
 		}
 	}
 
+	/**
+	 * Derive the seed of one stream (e.g. one game) from a master seed.
+	 * Streams are independent of each other and of the order they are used in.
+	 * @param masterSeed Master seed
+	 * @param stream Stream number
+	 * @return long
+	 */
+	public static long deriveSeed(long masterSeed, long stream) {
+		// SplitMix64 finalizer over a golden ratio increment.
+		long z = masterSeed + (stream + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
 	/**
 	 * Is the deck empty?
 	 * This will check if the deck is empty.
@@ -4,12 +4,12 @@ import java.security.InvalidParameterException;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 
 import poker.enums.Rank;
 import poker.enums.Suit;
-import poker.io.UserInput;
 import poker.player.Player;
+import poker.player.GameListener;
 
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
@@ -22,29 +22,58 @@ public class Game {
 	private ArrayList<Player> results;
 	private int next;
 	private Card startingCard;
-	private boolean haveHumanPlayers;
+	private ArrayList<GameListener> inputs;
+	private Player[] seats;
+	private final int[] opponentCards = new int[Rules.MAX_PLAYERS - 1];
+	private GameRecorder recorder;
+	private GameRecord record;
+	private ExecutorService deciders;
+	private long moveDeadline;
 	
 	/**
 	 * Initialize game
 	 * @param newPlayers Players
 	 */
-	public Game(List<Player> newPlayers) {		
+	public Game(List<Player> newPlayers) {
+		this(newPlayers, new Deck());
+	}
+	
+	/**
+	 * Initialize a reproducible game.
+	 * The deal and every bot's random choices are derived from the seed.
+	 * @param newPlayers Players
+	 * @param seed Game seed
+	 */
+	public Game(List<Player> newPlayers, long seed) {
+		this(newPlayers, new Deck(Deck.deriveSeed(seed, 0)));
+		
+		for (Player p : players) {
+			p.setSeed(Deck.deriveSeed(seed, p.getPosition()));
+		}
+	}
+	
+	/**
+	 * Initialize game with a deck
+	 */
+	private Game(List<Player> newPlayers, Deck newDeck) {
 		players = new ArrayList<Player>(newPlayers);
-		results = new ArrayList<Player>();
-		playedHands = new ArrayList<Hand>();		
-		deck = new Deck();
+		
+		// Sized for a full game so the turn loop never grows them.
+		results = new ArrayList<Player>(Rules.MAX_PLAYERS);
+		playedHands = new ArrayList<Hand>(Rules.MAX_PLAYERS * Rules.CARDS_PER_PLAYER);
+		deck = newDeck;
 
 		// The sort is based on the position of the players/bots.
 		players.sort(null);
+		seats = players.toArray(new Player[players.size()]);
 		deck.shuffle();
 		
-		// assume all bots. Updated below...
-		haveHumanPlayers = false;
+		inputs = new ArrayList<GameListener>();
 		
 		// Deal the cards and the player/bot with the lowest card will go first. 
 		long lowestCardScore = Rank.ACE.getScore() | Suit.SPADES.getScore();		
 		for (int p = 0; p < players.size(); p++) {
-			TreeSet<Card> cards = new TreeSet<Card>();
+			CardSet cards = new CardSet();
 			for (int j = 0; j < Rules.CARDS_PER_PLAYER; j++) {
 				cards.add(deck.getNextCard());
 			}
@@ -57,14 +86,47 @@ public class Game {
 			
 			Player player = players.get(p);
 			if (!player.isBot()) {
-				haveHumanPlayers = true;
+				// humans sharing an input (the console) see messages once
+				if (!inputs.contains(player.getInput())) {
+					inputs.add(player.getInput());
+				}
 			}
 			player.setCards(cards);
 		}
-		
-		postMessage("First player: %s", players.get(next).getName());
 	}
 
+	/**
+	 * Send the game to a recorder when it finishes.
+	 * Set before the game is run.
+	 */
+	public void setRecorder(GameRecorder gameRecorder) {
+		recorder = gameRecorder;
+		record = gameRecorder == null ? null : new GameRecord();
+	}
+	
+	/**
+	 * Send the game's messages to an observer as well as the humans.
+	 * Set before the game is run.
+	 */
+	public void addObserver(GameListener observer) {
+		inputs.add(observer);
+	}
+	
+	/**
+	 * Limit each bot move to a deadline, see Player.getNextHand().
+	 * Set before the game is run.
+	 * @param millis Deadline per move, 0 for none
+	 * @param executor Runs the bots' moves
+	 */
+	public void setMoveDeadline(long millis, ExecutorService executor) {
+		if (millis > 0 && executor == null) {
+			throw new IllegalArgumentException("move deadline requires an executor");
+		}
+		
+		moveDeadline = millis;
+		deciders = executor;
+	}
+	
 	/**
 	 * Run until complete
 	 */
@@ -87,11 +149,32 @@ public class Game {
 			throw new InvalidParameterException(String.format("Max %d players", Rules.MAX_PLAYERS));
 		}
 		
+		// The opening hand must include the opener's lowest card.
+		// Resolved here so cards assigned after construction are honored.
+		if (playedHands.isEmpty()) {
+			startingCard = CardSet.last(players.get(next).getCardMask());
+			
+			// posted here rather than when dealt, so observers added since see it
+			if (wantsMessages()) {
+				postMessage("First player: %s", players.get(next).getName());
+			}
+			
+			if (record != null) {
+				record.reset(seats.length);
+				for (int s = 0; s < seats.length; s++) {
+					record.setSeat(s, seats[s].getPosition(), seats[s].getCardMask());
+				}
+			}
+		}
+		
 		do {
 			roundCount++;
 			winningPlayer = round();
 			if (winningPlayer != null) {
-				postMessage("Winner %d: %s", results.size() + 1, winningPlayer.getName());
+				if (wantsMessages()) {
+					postMessage("Winner %d: %s", results.size() + 1, winningPlayer.getName());
+				}
+
 				results.add(winningPlayer);
 				players.remove(winningPlayer);
 				
@@ -104,7 +187,16 @@ public class Game {
 			}
 		} while (results.size() < numPlayers && (maxRounds < 0 || roundCount < maxRounds));
 		
-		postMessage("ran for %d rounds", roundCount);
+		if (wantsMessages()) {
+			postMessage("ran for %d rounds", roundCount);
+		}
+		
+		if (record != null && results.size() == numPlayers) {
+			for (Player p : results) {
+				record.addFinisher(seatOf(p));
+			}
+			recorder.record(record);
+		}
 		return results;
 	}
 	
@@ -145,10 +237,23 @@ public class Game {
 			Hand play;
 			boolean doneWithPlayer;
 			
+			if (nextPlayer.isBot()) {
+				// cards held by the others, in playing order from the bot
+				int opponents = players.size() - 1;
+				for (int o = 0; o < opponents; o++) {
+					opponentCards[o] = players.get((next + 1 + o) % players.size()).getCardCount();
+				}
+				nextPlayer.setOpponentCards(opponentCards, opponents);
+			}
+			
 			do {
 				doneWithPlayer = true;
-				play = nextPlayer.getNextHand(last, playedHands);
-				postMessage("%s played %s", nextPlayer.getName(), play == null ? "pass" : play);
+				play = moveDeadline > 0
+					? nextPlayer.getNextHand(last, playedHands, deciders, moveDeadline)
+					: nextPlayer.getNextHand(last, playedHands);
+				if (wantsMessages()) {
+					postMessage("%s played %s", nextPlayer.getName(), play == null ? "pass" : play);
+				}
 				
 				if (play != null) {	
 					int valid = Rules.checkHand(nextPlayer,  play, last, startingCard);
@@ -159,23 +264,27 @@ public class Game {
 							throw new IllegalStateException("Bot played invalid hand: err = " + valid);
 						} else {
 							doneWithPlayer = false;
-							UserInput.raiseInvalidHand(nextPlayer, valid);
+							nextPlayer.getInput().raiseInvalidHand(nextPlayer, valid);
 						}
 					}
 				}
 			} while (!doneWithPlayer);
+			
+			if (record != null) {
+				record.addTurn(seatOf(nextPlayer), play == null ? CardSet.EMPTY : play.getMask());
+			}
 					
 			if (play != null) {
 				lastSuccess = next;
 				last = play;
 				playedHands.add(play);
-				nextPlayer.getCards().removeAll(play.getCards());
+				nextPlayer.removeCards(play);
 				
 				// ensure lowest card rule is only enforced once...
 				startingCard = null;
 				
 				// The player has won, short circuit....
-				if (nextPlayer.getCards().size() == 0) {
+				if (nextPlayer.getCardCount() == 0) {
 					return nextPlayer;
 				}
 			}
@@ -183,18 +292,42 @@ public class Game {
 			next = (next + 1) % players.size();
 		} while (next != lastSuccess);
 				
-		postMessage("Round winner = %s\n", players.get(lastSuccess).getName());
+		if (wantsMessages()) {
+			postMessage("Round winner = %s\n", players.get(lastSuccess).getName());
+		}
 		return null;
 	}
 	
+	/**
+	 * Seat number (playing order at the start) of a player.
+	 */
+	private int seatOf(Player p) {
+		for (int s = 0; s < seats.length; s++) {
+			if (seats[s] == p) {
+				return s;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Is anyone listening? Bot-only tables with logging off skip messages
+	 * entirely, so the turn loop does not box or format anything.
+	 * Checked each time, so a logging level set mid-game takes effect.
+	 */
+	private boolean wantsMessages() {
+		return !inputs.isEmpty() || Logger.isEnabled();
+	}
+	
 	/**
 	 * Post user message
 	 */
 	private void postMessage(String format, Object ... args) {
 		Logger.info(format, args);
 		
-		if (haveHumanPlayers) {
-			UserInput.postMessage(format, args);
+		for (int i = 0; i < inputs.size(); i++) {
+			inputs.get(i).postMessage(format, args);
 		}
 	}
 }
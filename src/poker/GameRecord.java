@@ -0,0 +1,158 @@
+package poker;
+
+import java.util.Arrays;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Everything that happened in one game, as primitives: the seats and
+ * their deals, every turn (the seat and the cards played, 0 for a pass)
+ * and the finishing order. Seats are numbered in playing order.
+ * Filled by Game for a GameRecorder and by GameLogReader, and reused
+ * from game to game.
+ */
+
+public final class GameRecord {
+	private int seatCount;
+	private final int[] positions = new int[Rules.MAX_PLAYERS];
+	private final long[] deals = new long[Rules.MAX_PLAYERS];
+	private final int[] finishOrder = new int[Rules.MAX_PLAYERS];
+	private int finishCount;
+	private byte[] turnSeats = new byte[256];
+	private long[] turnMasks = new long[256];
+	private int turnCount;
+
+	/**
+	 * Start a new game.
+	 * @param seats Number of seats
+	 */
+	public void reset(int seats) {
+		if (seats < 1 || seats > Rules.MAX_PLAYERS) {
+			throw new IllegalArgumentException(String.format("Max %d players", Rules.MAX_PLAYERS));
+		}
+
+		seatCount = seats;
+		finishCount = 0;
+		turnCount = 0;
+	}
+
+	/**
+	 * Set a seat's player position and dealt cards.
+	 */
+	public void setSeat(int seat, int position, long deal) {
+		positions[seat] = position;
+		deals[seat] = deal;
+	}
+
+	/**
+	 * Add a turn.
+	 * @param seat Seat
+	 * @param mask Cards played, CardSet.EMPTY for a pass
+	 */
+	public void addTurn(int seat, long mask) {
+		if (turnCount == turnMasks.length) {
+			turnSeats = Arrays.copyOf(turnSeats, turnCount * 2);
+			turnMasks = Arrays.copyOf(turnMasks, turnCount * 2);
+		}
+
+		turnSeats[turnCount] = (byte) seat;
+		turnMasks[turnCount++] = mask;
+	}
+
+	/**
+	 * Add the next seat to finish.
+	 */
+	public void addFinisher(int seat) {
+		finishOrder[finishCount++] = seat;
+	}
+
+	public int getSeatCount() {
+		return seatCount;
+	}
+
+	/**
+	 * Player position (see Player.getPosition()) of a seat.
+	 */
+	public int getPosition(int seat) {
+		return positions[seat];
+	}
+
+	/**
+	 * Card mask dealt to a seat.
+	 */
+	public long getDeal(int seat) {
+		return deals[seat];
+	}
+
+	public int getTurnCount() {
+		return turnCount;
+	}
+
+	public int getTurnSeat(int turn) {
+		return turnSeats[turn];
+	}
+
+	/**
+	 * Cards played on a turn, CardSet.EMPTY for a pass.
+	 */
+	public long getTurnMask(int turn) {
+		return turnMasks[turn];
+	}
+
+	public int getFinishCount() {
+		return finishCount;
+	}
+
+	/**
+	 * Seat that finished in a place (0 = first).
+	 */
+	public int getFinisher(int place) {
+		return finishOrder[place];
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (!(o instanceof GameRecord)) {
+			return false;
+		}
+
+		GameRecord other = (GameRecord) o;
+		if (other.seatCount != seatCount || other.turnCount != turnCount || other.finishCount != finishCount) {
+			return false;
+		}
+
+		for (int s = 0; s < seatCount; s++) {
+			if (other.positions[s] != positions[s] || other.deals[s] != deals[s]) {
+				return false;
+			}
+		}
+
+		for (int t = 0; t < turnCount; t++) {
+			if (other.turnSeats[t] != turnSeats[t] || other.turnMasks[t] != turnMasks[t]) {
+				return false;
+			}
+		}
+
+		for (int p = 0; p < finishCount; p++) {
+			if (other.finishOrder[p] != finishOrder[p]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(deals) * 31 + turnCount;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("GameRecord(%d seats, %d turns, finish %s)", 
+			seatCount, turnCount, Arrays.toString(Arrays.copyOf(finishOrder, finishCount)));
+	}
+}
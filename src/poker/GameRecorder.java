@@ -0,0 +1,12 @@
+package poker;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Receives each finished game (see Game.setRecorder()).
+ * The record is reused by the game, so copy anything that is kept.
+ * Games run on several threads may share a recorder.
+ */
+
+public interface GameRecorder {
+	public void record(GameRecord game);
+}
@@ -6,6 +6,7 @@ public class GameResults {
 	private Player player;
 	private int[] results;
 	private int score;
+	private int timeouts;
 	
 	public GameResults(Player p) {
 		player = p;
@@ -17,6 +18,25 @@ public class GameResults {
 		score += (4 - place);
 	}
 	
+	/**
+	 * Add the results of another set of games for the same seat.
+	 */
+	public void merge(GameResults other) {
+		for (int i = 0; i < results.length; i++) {
+			results[i] += other.results[i];
+		}
+		
+		score += other.score;
+		timeouts += other.timeouts;
+	}
+	
+	/**
+	 * Count moves the player failed to make in time.
+	 */
+	public void addTimeouts(int count) {
+		timeouts += count;
+	}
+	
 	public Player getPlayer() {
 		return player;
 	}
@@ -28,4 +48,8 @@ public class GameResults {
 	public int getScore() {
 		return score;
 	}
+	
+	public int getTimeouts() {
+		return timeouts;
+	}
 }
@@ -0,0 +1,385 @@
+package poker;
+
+import java.util.Arrays;
+
+import poker.io.CardFormatter;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Compact game state for search: card masks per seat, the packed hand to
+ * beat, whose turn it is, the seat that played last and the finishing order.
+ *
+ * Follows the same rules as Game: the round ends when play comes back to
+ * the seat that played last, which then leads; a seat that runs out of
+ * cards finishes and the next seat leads a new round.
+ * apply() and undo() are O(1) and do not allocate once the history has
+ * grown to the length of the game.
+ * Moves are packed hands (see PackedHand), PackedHand.NONE to pass.
+ */
+
+public final class GameState {
+	private final int seatCount;
+	private final long[] cards;
+	private final int[] finishOrder;
+	private int finishCount;
+	private int active;
+	private long last;
+	private int lastSeat;
+	private int toMove;
+	private long startingCard;
+
+	// One entry per applied move, to undo it.
+	private long[] historyLast;
+	private int[] historyInfo;
+	private int ply;
+
+	/**
+	 * Start a game from a deal. The seat holding the lowest card opens
+	 * and must play it.
+	 * @param seatCards Card mask for each seat, in playing order
+	 */
+	public GameState(long... seatCards) {
+		this(seatCards, opener(seatCards), PackedHand.NONE, opener(seatCards));
+		startingCard = Long.lowestOneBit(cards[toMove]);
+	}
+
+	/**
+	 * Start from a position part way through a game.
+	 * Seats with no cards count as already finished, in seat order.
+	 * @param seatCards Card mask for each seat, in playing order
+	 * @param seatToMove Seat to move
+	 * @param lastPlay Packed hand to beat, PackedHand.NONE when leading
+	 * @param lastPlaySeat Seat that played lastPlay (or leads)
+	 */
+	public GameState(long[] seatCards, int seatToMove, long lastPlay, int lastPlaySeat) {
+		if (seatCards.length < 2 || seatCards.length > Rules.MAX_PLAYERS) {
+			throw new IllegalArgumentException(String.format("Max %d players", Rules.MAX_PLAYERS));
+		}
+
+		seatCount = seatCards.length;
+		cards = new long[seatCount];
+		finishOrder = new int[seatCount];
+		historyLast = new long[Rules.MAX_PLAYERS * Rules.CARDS_PER_PLAYER * 2];
+		historyInfo = new int[historyLast.length];
+		reset(seatCards, seatToMove, lastPlay, lastPlaySeat);
+	}
+
+	/**
+	 * Start again from a position part way through a game, as the
+	 * constructor does, keeping the arrays. Used to solve many deals
+	 * without allocating.
+	 * @param seatCards Card mask for each seat, as many as this state has
+	 */
+	public void reset(long[] seatCards, int seatToMove, long lastPlay, int lastPlaySeat) {
+		if (seatCards.length != seatCount) {
+			throw new IllegalArgumentException("seat count differs");
+		}
+
+		System.arraycopy(seatCards, 0, cards, 0, seatCount);
+		finishCount = 0;
+		active = (1 << seatCount) - 1;
+		for (int s = 0; s < seatCount; s++) {
+			if (cards[s] == CardSet.EMPTY) {
+				finishOrder[finishCount++] = s;
+				active &= ~(1 << s);
+			}
+		}
+
+		toMove = seatToMove;
+		last = lastPlay;
+		lastSeat = lastPlaySeat;
+		startingCard = CardSet.EMPTY;
+		ply = 0;
+	}
+
+	/**
+	 * Copy a state, history included.
+	 */
+	public GameState(GameState other) {
+		seatCount = other.seatCount;
+		cards = new long[seatCount];
+		finishOrder = new int[seatCount];
+		historyLast = new long[other.historyLast.length];
+		historyInfo = new int[other.historyInfo.length];
+		copyFrom(other);
+	}
+
+	/**
+	 * Overwrite this state with another of the same number of seats.
+	 */
+	public void copyFrom(GameState other) {
+		if (other.seatCount != seatCount) {
+			throw new IllegalArgumentException("seat count differs");
+		}
+
+		System.arraycopy(other.cards, 0, cards, 0, seatCount);
+		System.arraycopy(other.finishOrder, 0, finishOrder, 0, seatCount);
+		finishCount = other.finishCount;
+		active = other.active;
+		last = other.last;
+		lastSeat = other.lastSeat;
+		toMove = other.toMove;
+		startingCard = other.startingCard;
+
+		if (historyLast.length < other.ply) {
+			historyLast = new long[other.historyLast.length];
+			historyInfo = new int[other.historyInfo.length];
+		}
+		System.arraycopy(other.historyLast, 0, historyLast, 0, other.ply);
+		System.arraycopy(other.historyInfo, 0, historyInfo, 0, other.ply);
+		ply = other.ply;
+	}
+
+	public int getSeatCount() {
+		return seatCount;
+	}
+
+	/**
+	 * Card mask held by a seat.
+	 */
+	public long getCards(int seat) {
+		return cards[seat];
+	}
+
+	/**
+	 * Packed hand to beat, PackedHand.NONE when the seat to move leads.
+	 */
+	public long getLast() {
+		return last;
+	}
+
+	/**
+	 * Seat that made the last play (or leads the round).
+	 */
+	public int getLastSeat() {
+		return lastSeat;
+	}
+
+	public int getToMove() {
+		return toMove;
+	}
+
+	/**
+	 * Card the opening hand must include, CardSet.EMPTY after the opening.
+	 */
+	public long getStartingCard() {
+		return startingCard;
+	}
+
+	/**
+	 * Number of moves (plays and passes) applied.
+	 */
+	public int getPly() {
+		return ply;
+	}
+
+	public int getFinishCount() {
+		return finishCount;
+	}
+
+	/**
+	 * Seat that finished in a place (0 = first).
+	 */
+	public int getFinisher(int place) {
+		return finishOrder[place];
+	}
+
+	/**
+	 * Is the seat still holding cards?
+	 */
+	public boolean isActive(int seat) {
+		return (active & (1 << seat)) != 0;
+	}
+
+	public boolean isGameOver() {
+		return finishCount == seatCount;
+	}
+
+	/**
+	 * Can the seat to move make this move? The same checks as Rules.checkHand.
+	 * @param move Packed hand, PackedHand.NONE to pass
+	 */
+	public boolean isLegal(long move) {
+		if (isGameOver()) {
+			return false;
+		}
+
+		if (move == PackedHand.NONE) {
+			return true;
+		}
+
+		long mask = PackedHand.mask(move);
+		if (!PackedHand.isValid(move) || !CardSet.containsAll(cards[toMove], mask)) {
+			return false;
+		}
+
+		if (startingCard != CardSet.EMPTY && (mask & startingCard) == 0) {
+			return false;
+		}
+
+		return last == PackedHand.NONE || PackedHand.beats(move, last);
+	}
+
+	/**
+	 * Make a move for the seat to move. The move is not checked, see isLegal().
+	 * @param move Packed hand, PackedHand.NONE to pass
+	 */
+	public void apply(long move) {
+		if (ply == historyLast.length) {
+			historyLast = Arrays.copyOf(historyLast, ply * 2);
+			historyInfo = Arrays.copyOf(historyInfo, ply * 2);
+		}
+
+		historyLast[ply] = last;
+		historyInfo[ply] = toMove
+			| (lastSeat << 4)
+			| (finishCount << 8)
+			| ((CardSet.lowIndex(startingCard) + 1) << 12);
+		ply++;
+
+		int seat = toMove;
+		if (move != PackedHand.NONE) {
+			cards[seat] &= ~PackedHand.mask(move);
+			last = move;
+			lastSeat = seat;
+			startingCard = CardSet.EMPTY;
+
+			if (cards[seat] == CardSet.EMPTY) {
+				finish(seat);
+
+				if (!isGameOver()) {
+					// The next seat leads a new round.
+					toMove = nextSeat(seat);
+					lastSeat = toMove;
+					last = PackedHand.NONE;
+				}
+				return;
+			}
+		}
+
+		toMove = nextSeat(seat);
+		if (toMove == lastSeat) {
+			// Everyone else passed, the round is over.
+			last = PackedHand.NONE;
+		}
+	}
+
+	/**
+	 * Take back the last move applied.
+	 * @param move The move passed to apply()
+	 */
+	public void undo(long move) {
+		if (ply == 0) {
+			throw new IllegalStateException("no move to undo");
+		}
+
+		ply--;
+		int info = historyInfo[ply];
+		int restoredFinishes = (info >> 8) & 0xF;
+
+		while (finishCount > restoredFinishes) {
+			active |= 1 << finishOrder[--finishCount];
+		}
+
+		toMove = info & 0xF;
+		lastSeat = (info >> 4) & 0xF;
+		int starting = (info >> 12) - 1;
+		startingCard = starting < 0 ? CardSet.EMPTY : 1L << starting;
+		last = historyLast[ply];
+
+		if (move != PackedHand.NONE) {
+			cards[toMove] |= PackedHand.mask(move);
+		}
+	}
+
+	/**
+	 * Seat holding the lowest card.
+	 */
+	private static int opener(long[] seatCards) {
+		int lowest = 52, seat = 0;
+		for (int s = 0; s < seatCards.length; s++) {
+			int low = CardSet.lowIndex(seatCards[s]);
+			if (low >= 0 && low < lowest) {
+				lowest = low;
+				seat = s;
+			}
+		}
+
+		return seat;
+	}
+
+	/**
+	 * Seat finished, the last seat left finishes with it.
+	 */
+	private void finish(int seat) {
+		finishOrder[finishCount++] = seat;
+		active &= ~(1 << seat);
+
+		if (Integer.bitCount(active) == 1) {
+			int lastSeatLeft = Integer.numberOfTrailingZeros(active);
+			finishOrder[finishCount++] = lastSeatLeft;
+			active = 0;
+		}
+	}
+
+	/**
+	 * Next seat still holding cards.
+	 */
+	private int nextSeat(int seat) {
+		do {
+			seat = (seat + 1) % seatCount;
+		} while ((active & (1 << seat)) == 0);
+
+		return seat;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (!(o instanceof GameState)) {
+			return false;
+		}
+
+		GameState other = (GameState) o;
+		if (other.seatCount != seatCount || other.finishCount != finishCount) {
+			return false;
+		}
+
+		for (int i = 0; i < finishCount; i++) {
+			if (other.finishOrder[i] != finishOrder[i]) {
+				return false;
+			}
+		}
+
+		return Arrays.equals(other.cards, cards)
+			&& other.last == last
+			&& other.lastSeat == lastSeat
+			&& other.toMove == toMove
+			&& other.startingCard == startingCard;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(cards) * 31 + Long.hashCode(last) * 7 + toMove;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("GameState(");
+		for (int s = 0; s < seatCount; s++) {
+			sb.append(s == toMove ? "*[" : "[");
+			CardFormatter.append(sb, cards[s]).append("], ");
+		}
+
+		sb.append("last=");
+		if (last == PackedHand.NONE) {
+			sb.append("none");
+		} else {
+			CardFormatter.append(sb, PackedHand.mask(last));
+		}
+		return sb.append(")").toString();
+	}
+}
@@ -1,10 +1,12 @@
 package poker;
 
+import java.security.InvalidParameterException;
 import java.util.Collection;
 import java.util.TreeSet;
 
 import poker.enums.HandType;
-import poker.enums.Rank;
+import poker.io.CardFormatter;
+import poker.io.CardParser;
 
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
@@ -13,15 +15,18 @@ import poker.enums.Rank;
  */
 
 public class Hand implements Comparable<Hand> {
+	private long mask;
 	private TreeSet<Card> cards;
 	private long score;
 	private HandType type;
+	private String label;
 	
 	/**
      * Construct from Set.
      */
     public Hand(TreeSet<Card> startingCards) {    	
     	cards = startingCards;
+    	mask = CardSet.maskOf(startingCards);
     	validate();
     }
     
@@ -29,16 +34,43 @@ public class Hand implements Comparable<Hand> {
      * Construct from Collection.
      */
     public Hand(Collection<Card> startingCards) {
-    	this(new TreeSet<Card>(startingCards));
+    	mask = CardSet.maskOf(startingCards);
+    	validate();
     }
     
     /**
-     * Construct from string.
+     * Construct from CardSet.
+     */
+    public Hand(CardSet startingCards) {
+    	this(startingCards.getMask());
+    }
+    
+    /**
+     * Construct from card mask (see CardSet).
+     */
+    public Hand(long cardMask) {
+    	mask = cardMask;
+    	validate();
+    }
+    
+    /**
+     * Construct from string, e.g. "5d 5c" (see CardParser).
      * @param cardStr String
      * @return Hand
+     * @throws InvalidParameterException if the string is malformed
      */
     public Hand(String cardStr) {
-    	this(Utils.getCardsFromString(cardStr));
+    	this(parseMask(cardStr));
+    }
+    
+    private static long parseMask(String cardStr) {
+    	long cards = CardParser.parse(cardStr);
+    	if (CardParser.isError(cards)) {
+    		throw new InvalidParameterException(String.format("Invalid card at position %d in \"%s\"", 
+    			CardParser.errorPosition(cards), cardStr));
+    	}
+    	
+    	return cards;
     }
 
     /**
@@ -52,7 +84,7 @@ public class Hand implements Comparable<Hand> {
      * Hand size.
      */
     public int getSize() {
-    	return cards.size();
+    	return Long.bitCount(mask);
     }
     
     /**
@@ -69,11 +101,23 @@ public class Hand implements Comparable<Hand> {
     	return score;
     }
     
+    /**
+     * Get the card mask (see CardSet).
+     */
+    public long getMask() {
+    	return mask;
+    }
+    
     /**
      * Get the cards in hand.
+     * Built on first use, callers should not modify it.
      * @return TreeSet<Card>
      */
     public TreeSet<Card> getCards() {
+    	if (cards == null) {
+    		cards = CardSet.toTreeSet(mask);
+    	}
+    	
     	return cards;
     }
     
@@ -82,7 +126,15 @@ public class Hand implements Comparable<Hand> {
      * @return Card
      */
     public Card getHighCard() {
-    	return cards.first();
+    	return CardSet.first(mask);
+    }
+    
+    /**
+     * Get the lowest card in hand.
+     * @return Card
+     */
+    public Card getLowCard() {
+    	return CardSet.last(mask);
     }
     
     /**
@@ -90,7 +142,11 @@ public class Hand implements Comparable<Hand> {
      */
     @Override
     public String toString() {
-    	return Utils.getCardString(cards);
+    	if (label == null) {
+    		label = CardFormatter.format(mask);
+    	}
+    	
+    	return label;
     }
     
     /**
@@ -127,134 +183,7 @@ public class Hand implements Comparable<Hand> {
      * Validation and scoring.
      */
     private void validate() {
-    	type = HandType.INVALID;
-    	score = 0;
-    	
-    	int handSize = cards.size();
-    	    	
-    	// A player can play between 1 to 5 card per turn.
-    	if (handSize < 1 || handSize > Rules.MAX_HAND_SIZE) {
-    		return;
-    	}
-
-    	// Hands that are less than 5 cards may only be X-of-a-kind.
-    	// X-of-a-kind score is the value of the highest card in the hand
-    	if (handSize < 5) {
-    		validateOfAKind();
-    	}
-    	
-    	// 5 card hand must be one of the following:
-    	//    - 4 of a kind with kicker,
-    	//    - straight,
-    	//    - flush,
-    	//    - full house.
-    	else {
-        	long ranksAndSuits = 0L;
-        	int r1 = 0, r2 = 0;
-        	Rank r = null;
-        	
-        	for (Card c : cards) {
-        		ranksAndSuits |= c.getScore();
-        		
-        		if (r == null) {
-        			r = c.getRank();
-        			++r1;
-        		} else if (c.getRank() == r) {
-        			++r1;
-        		} else {
-        			++r2;
-        		}
-        	}
-        	
-        	long ranks = ranksAndSuits & 0xFFFF0;
-        	long suits = ranksAndSuits & 0xF;
-        	
-    		// Full house or quads with kicker.
-    		if (Long.bitCount(ranks) == 2) {
-    			validateFullHouseOrQuads(ranks, suits, r1, r2);
-    		}
-    		
-    		else {
-    			validateStraightsAndFlushes(ranks, suits);
-    		}    		
-    	}
-    }
-    
-    /**
-     * Set the validity and score for the high card, pair, trips, quads (no kicker).
-     */
-    private void validateOfAKind() {
-    	Card first = cards.first();
-    	Card last = cards.last();
-    	
-		if (first.getRank() == last.getRank()) {
-			int sz = cards.size();
-	    	type = HandType.valueOf(sz);
-			
-			if (sz < 4) {
-				score = type.getScore() | first.getScore();
-			} else {
-				score = type.getScore()  | (first.getRank().getScore() << 17);
-			}
-		}
-    }
-    
-    /**
-     * Set the validity and score for full houses and quads with kicker.
-     */
-    private void validateFullHouseOrQuads(long ranks, long suits, int r1, int r2) {
-    	Card main, kicker;
-    	
-		if (r1 == 4 || r1 == 1) {
-			type = HandType.QUADS_WITH_KICKER;
-			
-			if (r1 == 4) {
-				main = cards.first();
-				kicker = cards.last();
-			} else {
-				main = cards.last();
-				kicker = cards.first();
-			}
-			
-			score = type.getScore() | (main.getRank().getScore() << 17) | kicker.getScore();					
-		} else {
-			type = HandType.FULL_HOUSE;			
-			
-			if (r1 == 3) {
-				main = cards.first();
-				kicker = cards.last();
-			} else {
-				main = cards.last();
-				kicker = cards.first();
-			}
-
-			score = type.getScore() | (main.getRank().getScore() << 17) | kicker.getRank().getScore();
-		}
-    }
-    
-    /**
-     * Validate for straight or flush or straight flush
-     */
-    private void validateStraightsAndFlushes(long ranks, long suits) {
-		// Straight.
-		if (Long.bitCount(ranks) == 5) {
-			if ((cards.first().getRank().getScore() >> 4) == cards.last().getRank().getScore()) {
-				type = HandType.STRAIGHT;
-				score = type.getScore() | getHighCard().getScore();
-			}
-		}
-		
-		// Flush or straight flush.
-		if (Long.bitCount(suits) == 1) {
-			long flushValue = getHighCard().getScore();
-			
-			if (type == HandType.STRAIGHT) {
-				type = HandType.STRAIGHT_FLUSH;
-			} else {
-				type = HandType.FLUSH;
-			}
-			
-			score = type.getScore() | flushValue;
-		}
+    	score = HandEvaluator.getDefault().evaluate(mask);
+    	type = HandType.ofScore(score, getSize());
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package poker;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.stream.IntStream;
+
+import poker.enums.HandType;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Maps a set of cards to its hand score.
+ * The score layout is the one described by HandType, Rank and Suit;
+ * an invalid hand scores 0. Use HandType.ofScore() to recover the type.
+ *
+ * The batch methods score arrays of masks into parallel arrays of scores
+ * and HandType ordinals, for callers that would otherwise build a Hand
+ * for each candidate.
+ */
+
+public abstract class HandEvaluator {
+	// Masks per task when a batch is split across cores.
+	static final int PARALLEL_CHUNK = 1 << 14;
+
+	private static final HandType[] TYPES = HandType.values();
+
+	private static HandEvaluator reference = new ReferenceHandEvaluator();
+	private static HandEvaluator lookup = new LookupHandEvaluator();
+	private static HandEvaluator current = lookup;
+
+	/**
+	 * Score a set of cards.
+	 * @param mask Card mask (see CardSet)
+	 * @return score, or 0 if not a valid hand
+	 */
+	public abstract long evaluate(long mask);
+
+	/**
+	 * Score a batch of masks.
+	 * @param masks Card masks
+	 * @param types HandType ordinal for each mask, or null if not wanted
+	 * @param scores Score for each mask
+	 */
+	public void evaluate(long[] masks, byte[] types, long[] scores) {
+		evaluate(masks, 0, masks.length, types, scores);
+	}
+
+	/**
+	 * Score masks[from] to masks[to - 1] into the same positions of types and scores.
+	 */
+	public void evaluate(long[] masks, int from, int to, byte[] types, long[] scores) {
+		// Two simple passes rather than one loop with the type lookup in it.
+		for (int i = from; i < to; i++) {
+			scores[i] = evaluate(masks[i]);
+		}
+
+		if (types != null) {
+			for (int i = from; i < to; i++) {
+				types[i] = typeOrdinal(scores[i], masks[i]);
+			}
+		}
+	}
+
+	/**
+	 * Score a batch of masks, split across the common fork-join pool
+	 * when it is large enough to be worth it.
+	 */
+	public void evaluateParallel(long[] masks, byte[] types, long[] scores) {
+		int chunks = (masks.length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+		if (chunks <= 1) {
+			evaluate(masks, types, scores);
+			return;
+		}
+
+		IntStream.range(0, chunks).parallel().forEach(c -> evaluate(masks, 
+			c * PARALLEL_CHUNK, Math.min(masks.length, (c + 1) * PARALLEL_CHUNK), types, scores));
+	}
+
+	/**
+	 * Score the masks remaining in a buffer. Like the NIO bulk methods,
+	 * the positions of all the buffers advance by the number of masks,
+	 * and if an output buffer is too small nothing is read or written.
+	 * @param types HandType ordinals, or null if not wanted
+	 * @throws BufferOverflowException If scores or types has less room
+	 *         than masks has remaining
+	 */
+	public void evaluate(LongBuffer masks, ByteBuffer types, LongBuffer scores) {
+		int count = masks.remaining();
+		if (scores.remaining() < count || (types != null && types.remaining() < count)) {
+			throw new BufferOverflowException();
+		}
+
+		while (masks.hasRemaining()) {
+			long mask = masks.get();
+			long score = evaluate(mask);
+			scores.put(score);
+
+			if (types != null) {
+				types.put(typeOrdinal(score, mask));
+			}
+		}
+	}
+
+	private static byte typeOrdinal(long score, long mask) {
+		return (byte) HandType.ofScore(score, Long.bitCount(mask)).ordinal();
+	}
+
+	/**
+	 * HandType for an ordinal from the batch methods.
+	 */
+	public static HandType typeOf(byte ordinal) {
+		return TYPES[ordinal];
+	}
+
+	/**
+	 * Factory methods.
+	 */
+
+	/**
+	 * Evaluator used by Hand.
+	 */
+	public static HandEvaluator getDefault() {
+		return current;
+	}
+
+	/**
+	 * Swap the evaluator used by Hand.
+	 * Should be done before any games are started.
+	 */
+	public static void setDefault(HandEvaluator evaluator) {
+		current = evaluator;
+	}
+
+	/**
+	 * Original rank counting evaluator.
+	 */
+	public static HandEvaluator reference() {
+		return reference;
+	}
+
+	/**
+	 * Table driven evaluator.
+	 */
+	public static HandEvaluator lookup() {
+		return lookup;
+	}
+}
@@ -0,0 +1,140 @@
+package poker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Histogram of durations in nanoseconds, in the style of HdrHistogram:
+ * each power of two is split into 32 linear buckets, so any value is
+ * recorded within about 3% and the whole range of a long fits in a
+ * fixed table. Recording is lock free and does not allocate.
+ */
+
+public class LatencyHistogram {
+	private static final int SUB_BITS = 5;
+	private static final int SUB = 1 << SUB_BITS;
+	private static final int BUCKETS = SUB + (64 - SUB_BITS) * SUB;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a duration.
+	 * @param nanos Nanoseconds (negative values count as 0)
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(indexOf(value));
+		count.increment();
+		total.add(value);
+
+		long previous = max.get();
+		while (value > previous && !max.compareAndSet(previous, value)) {
+			previous = max.get();
+		}
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) total.sum() / n;
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Value at a percentile, to within the bucket width.
+	 * @param percentile 0 - 100
+	 */
+	public long getPercentile(double percentile) {
+		long n = count.sum();
+		if (n == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(highestOf(i), max.get());
+			}
+		}
+
+		return max.get();
+	}
+
+	/**
+	 * Add another histogram's values.
+	 */
+	public void merge(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			long c = other.counts.get(i);
+			if (c != 0) {
+				counts.addAndGet(i, c);
+			}
+		}
+
+		count.add(other.count.sum());
+		total.add(other.total.sum());
+
+		long value = other.max.get();
+		long previous = max.get();
+		while (value > previous && !max.compareAndSet(previous, value)) {
+			previous = max.get();
+		}
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+
+		count.reset();
+		total.reset();
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("LatencyHistogram(count=%d, mean=%.0f, p50=%d, p99=%d, max=%d)",
+			getCount(), getMean(), getPercentile(50), getPercentile(99), getMax());
+	}
+
+	/**
+	 * Values below 32 have a bucket each; above that, the 5 bits after the
+	 * highest set bit pick one of 32 buckets for that power of two.
+	 */
+	static int indexOf(long value) {
+		int msb = 63 - Long.numberOfLeadingZeros(value);
+		if (msb < SUB_BITS) {
+			return (int) value;
+		}
+
+		int sub = (int) (value >>> (msb - SUB_BITS)) & (SUB - 1);
+		return SUB + (msb - SUB_BITS) * SUB + sub;
+	}
+
+	/**
+	 * Largest value that falls in a bucket.
+	 */
+	static long highestOf(int index) {
+		if (index < SUB) {
+			return index;
+		}
+
+		int msb = (index - SUB) / SUB + SUB_BITS;
+		long sub = (index - SUB) % SUB;
+		long low = (1L << msb) | (sub << (msb - SUB_BITS));
+		return low + (1L << (msb - SUB_BITS)) - 1;
+	}
+}
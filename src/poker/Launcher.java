@@ -1,10 +1,12 @@
 package poker;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import poker.io.GameLogWriter;
 import poker.io.UserInput;
 import poker.player.Player;
 import poker.player.bots.PlayerAIBase;
@@ -12,10 +14,11 @@ import poker.player.bots.PlayerAIBase;
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
  * Main game engine
+ * Optional argument: a file to record the games to (see GameLogWriter).
  */
 
 public class Launcher {
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 		// prompt user for game setup
 		int playerCount = UserInput.getPlayerCount(Rules.MAX_PLAYERS);
 		int roundCount = 1;
@@ -48,21 +51,48 @@ public class Launcher {
 		UserInput.postMessage("Starting %d game%s with %d players!\n", 
 			roundCount, (roundCount > 1 ? "s" :""), playerCount);
 		
-		for (int round = 0; round < roundCount; round++) {
-			Game game = new Game(players);
-			ArrayList<Player> ret = game.run();
-			
-			for (int i = 0; i < ret.size(); i++) {
-				Player next = ret.get(i);
-				results.get(next).processGameResult(i);
+		GameLogWriter log = args.length > 0 ? GameLogWriter.open(Paths.get(args[0])) : null;
+		
+		List<GameResults> playerResults;
+		try {
+			if (haveHumanPlayers) {
+				Game game = new Game(players);
+				game.setRecorder(log);
+				ArrayList<Player> ret = game.run();
+				
+				for (int i = 0; i < ret.size(); i++) {
+					Player next = ret.get(i);
+					results.get(next).processGameResult(i);
+				}
+				
+				playerResults = new ArrayList<GameResults>(results.values());
+				playerResults.sort((a, b) -> b.getScore() - a.getScore());
+			} else {
+				// bot-only games are run headless across all cores
+				Tournament tournament = new Tournament(players);
+				tournament.setRecorder(log);
+				tournament.setMoveDeadline(Long.getLong("poker.moveDeadline", 0));
+				playerResults = tournament.run(roundCount);
+				
+				UserInput.postMessage("Played %d games in %d ms (%.0f games/sec)\n", 
+					roundCount, tournament.getElapsedMillis(), tournament.getGamesPerSecond());
+			}
+		} finally {
+			// flush what was recorded even if a game failed
+			if (log != null) {
+				log.close();
 			}
 		}
 		
-		// tabulate and post results
-		List<GameResults> playerResults = results.values().stream()
-				.sorted((a, b) -> b.getScore() - a.getScore())
-				.collect(Collectors.toList());
+		if (log != null) {
+			UserInput.postMessage("Recorded %d games to %s\n", log.getGamesWritten(), args[0]);
+		}
 		
+		// tabulate and post results
 		UserInput.postResults(playerResults);
+		
+		if (Metrics.isEnabled()) {
+			UserInput.postMessage("\n%s", Metrics.report());
+		}
 	}
 }
\ No newline at end of file
@@ -1,22 +1,292 @@
 package poker;
 
-/** 
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
- * Logging helper. Set enabled to true to debug
+ * Logging helper with runtime levels: start with -Dpoker.log=info (or
+ * debug, warn, error) or call setLevel(). Off by default.
+ *
+ * Logging a message only queues the format and arguments in a bounded
+ * lock-free ring; a background thread formats and writes them. When the
+ * ring is full the message is dropped and counted rather than slowing
+ * the game, and the writer reports the count. Arguments are formatted
+ * later, so pass values that will not change (strings, numbers, Hands).
  */
 
 public class Logger {
-	private static final boolean ENABLED = false;
-	
+	public static final int DEBUG = 1;
+	public static final int INFO = 2;
+	public static final int WARN = 3;
+	public static final int ERROR = 4;
+	public static final int OFF = 5;
+
+	public static final int DEFAULT_CAPACITY = 1 << 14;
+
+	private static final String[] LEVELS = { "", "DEBUG", "INFO", "WARN", "ERROR" };
+	private static final long IDLE_NANOS = 1000000L;
+
+	private static volatile int level = levelOf(System.getProperty("poker.log", "off"));
+	private static volatile PrintStream out = System.out;
+	private static volatile Ring ring = new Ring(DEFAULT_CAPACITY);
+	private static volatile Thread writer;
+	private static final LongAdder dropped = new LongAdder();
+	private static long droppedReported;
+
+	/**
+	 * Is logging on at INFO? Lets callers skip building messages.
+	 */
+	public static boolean isEnabled() {
+		return level <= INFO;
+	}
+
+	/**
+	 * Is logging on at a level?
+	 */
+	public static boolean isEnabled(int atLevel) {
+		return level <= atLevel;
+	}
+
+	public static int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Log messages at this level and above, OFF for none.
+	 */
+	public static void setLevel(int newLevel) {
+		if (newLevel < DEBUG || newLevel > OFF) {
+			throw new IllegalArgumentException("unknown log level " + newLevel);
+		}
+
+		level = newLevel;
+	}
+
+	/**
+	 * Level by name (debug, info, warn, error, off).
+	 */
+	public static int levelOf(String name) {
+		for (int l = DEBUG; l < OFF; l++) {
+			if (LEVELS[l].equalsIgnoreCase(name)) {
+				return l;
+			}
+		}
+
+		if ("off".equalsIgnoreCase(name)) {
+			return OFF;
+		}
+
+		throw new IllegalArgumentException("unknown log level " + name);
+	}
+
 	/**
-	 * 
-	 * @param overrideEnabled
-	 * @param format
+	 * Where the writer sends messages, System.out by default.
+	 */
+	public static void setOutput(PrintStream stream) {
+		flush();
+		out = stream;
+	}
+
+	/**
+	 * Resize the ring. Messages still queued are written first;
+	 * call before logging from other threads.
+	 */
+	public static void setCapacity(int capacity) {
+		flush();
+		ring = new Ring(capacity);
+	}
+
+	/**
+	 * Messages dropped because the ring was full.
+	 */
+	public static long getDropped() {
+		return dropped.sum();
+	}
+
+	public static void debug(String format, Object ... args) {
+		if (level <= DEBUG) {
+			log(DEBUG, format, args);
+		}
+	}
+
+	/**
+	 * Log at INFO.
+	 * @param format String.format() format, applied on the writer thread
 	 * @param args
 	 */
 	public static void info(String format, Object ... args) {
-		if (ENABLED) {
-			System.out.println(String.format(format, args));
+		if (level <= INFO) {
+			log(INFO, format, args);
+		}
+	}
+
+	public static void warn(String format, Object ... args) {
+		if (level <= WARN) {
+			log(WARN, format, args);
+		}
+	}
+
+	public static void error(String format, Object ... args) {
+		if (level <= ERROR) {
+			log(ERROR, format, args);
+		}
+	}
+
+	/**
+	 * Wait until every message queued so far is written.
+	 */
+	public static void flush() {
+		Ring r = ring;
+		Thread w = writer;
+		long queued = r.tail.get();
+
+		while (w != null && w.isAlive() && r.written() < queued) {
+			LockSupport.unpark(w);
+			LockSupport.parkNanos(IDLE_NANOS / 10);
+		}
+
+		out.flush();
+	}
+
+	private static void log(int atLevel, String format, Object[] args) {
+		if (writer == null) {
+			startWriter();
+		}
+
+		if (!ring.offer(atLevel, format, args)) {
+			dropped.increment();
+		}
+	}
+
+	private static synchronized void startWriter() {
+		if (writer != null) {
+			return;
+		}
+
+		Thread t = new Thread(Logger::write, "poker-logger");
+		t.setDaemon(true);
+		t.start();
+		writer = t;
+
+		// write what is queued when the JVM exits
+		Runtime.getRuntime().addShutdownHook(new Thread(Logger::flush, "poker-logger-flush"));
+	}
+
+	/**
+	 * The writer thread: format and write each message, and report
+	 * drops whenever the ring runs empty.
+	 */
+	private static void write() {
+		while (true) {
+			Ring r = ring;
+			if (!r.writeNext(out)) {
+				long d = dropped.sum();
+				if (d != droppedReported) {
+					out.println(String.format("%s dropped %d log messages", LEVELS[WARN], d - droppedReported));
+					droppedReported = d;
+				}
+
+				out.flush();
+				LockSupport.parkNanos(IDLE_NANOS);
+			}
+		}
+	}
+
+	/**
+	 * Bounded multi-producer, single-consumer ring. A slot's sequence
+	 * says whether it is free for position n (n) or holds the message
+	 * for position n (n + 1), so producers claim slots with one CAS and
+	 * never wait for each other or the writer.
+	 */
+	private static final class Ring {
+		private final int mask;
+		private final AtomicLongArray sequence;
+		private final int[] levels;
+		private final String[] formats;
+		private final Object[][] args;
+		private final AtomicLong tail = new AtomicLong();
+		private volatile long head;
+
+		Ring(int capacity) {
+			int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+			mask = size - 1;
+			sequence = new AtomicLongArray(size);
+			levels = new int[size];
+			formats = new String[size];
+			args = new Object[size][];
+
+			for (int i = 0; i < size; i++) {
+				sequence.set(i, i);
+			}
+		}
+
+		/**
+		 * Queue a message.
+		 * @return false if the ring is full
+		 */
+		boolean offer(int atLevel, String format, Object[] messageArgs) {
+			long pos = tail.get();
+
+			while (true) {
+				int slot = (int) pos & mask;
+				long diff = sequence.get(slot) - pos;
+
+				if (diff == 0) {
+					if (tail.compareAndSet(pos, pos + 1)) {
+						levels[slot] = atLevel;
+						formats[slot] = format;
+						args[slot] = messageArgs;
+						sequence.lazySet(slot, pos + 1);
+						return true;
+					}
+					pos = tail.get();
+				} else if (diff < 0) {
+					return false;
+				} else {
+					pos = tail.get();
+				}
+			}
+		}
+
+		/**
+		 * Write the oldest message (writer thread only).
+		 * @return false if there is none
+		 */
+		boolean writeNext(PrintStream stream) {
+			long pos = head;
+			int slot = (int) pos & mask;
+			if (sequence.get(slot) != pos + 1) {
+				return false;
+			}
+
+			int atLevel = levels[slot];
+			String format = formats[slot];
+			Object[] messageArgs = args[slot];
+			formats[slot] = null;
+			args[slot] = null;
+			sequence.lazySet(slot, pos + mask + 1);
+
+			String message;
+			try {
+				message = String.format(format, messageArgs);
+			} catch (RuntimeException e) {
+				message = format + " (" + e + ")";
+			}
+
+			stream.println(LEVELS[atLevel] + " " + message);
+			head = pos + 1;
+			return true;
+		}
+
+		/**
+		 * Messages written so far.
+		 */
+		long written() {
+			return head;
 		}
 	}
 }
@@ -0,0 +1,103 @@
+package poker;
+
+import poker.enums.HandType;
+import poker.enums.Rank;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Hand evaluation from precomputed tables.
+ * A card mask is folded into a 13 bit rank mask (CardSet.rankMask, one
+ * table load per 16 bit chunk), straights are a table lookup on the
+ * rank mask and flushes a single suit mask test. Scores are identical to
+ * ReferenceHandEvaluator for every hand of 1 to 5 cards.
+ */
+
+class LookupHandEvaluator extends HandEvaluator {
+	// 13 bit rank mask -> true if the ranks are 5 in a row.
+	private static final boolean[] STRAIGHTS = new boolean[1 << 13];
+
+	// Card index -> card score, rank id - 1 -> rank score.
+	private static final long[] CARD_SCORES = new long[52];
+	private static final long[] RANK_SCORES = new long[13];
+
+	// Hand size -> X-of-a-kind base score.
+	private static final long[] OF_A_KIND = new long[5];
+
+	static {
+		for (int low = 0; low + 5 <= 13; low++) {
+			STRAIGHTS[0x1F << low] = true;
+		}
+
+		for (int i = 0; i < 52; i++) {
+			CARD_SCORES[i] = Card.ofIndex(i).getScore();
+		}
+
+		for (Rank r : Rank.values()) {
+			RANK_SCORES[r.getId() - 1] = r.getScore();
+		}
+
+		for (int size = 1; size < 5; size++) {
+			OF_A_KIND[size] = HandType.valueOf(size).getScore();
+		}
+	}
+
+	@Override
+	public long evaluate(long mask) {
+		int size = Long.bitCount(mask);
+		if (size < 1 || size > Rules.MAX_HAND_SIZE) {
+			return 0;
+		}
+
+		int high = 63 - Long.numberOfLeadingZeros(mask);
+		int low = Long.numberOfTrailingZeros(mask);
+		int highRank = high >> 2;
+		int lowRank = low >> 2;
+
+		// X-of-a-kind: all cards share one rank.
+		if (size < 5) {
+			if (highRank != lowRank) {
+				return 0;
+			}
+
+			if (size < 4) {
+				return OF_A_KIND[size] | CARD_SCORES[high];
+			}
+
+			return OF_A_KIND[4] | (RANK_SCORES[highRank] << 17);
+		}
+
+		int ranks = CardSet.rankMask(mask);
+		int rankCount = Integer.bitCount(ranks);
+
+		// Full house or quads with kicker.
+		if (rankCount == 2) {
+			int highCount = Long.bitCount(mask & (0xFL << (highRank * 4)));
+
+			switch (highCount) {
+				case 4:
+					return HandType.QUADS_WITH_KICKER.getScore() | (RANK_SCORES[highRank] << 17) | CARD_SCORES[low];
+				case 1:
+					return HandType.QUADS_WITH_KICKER.getScore() | (RANK_SCORES[lowRank] << 17) | CARD_SCORES[high];
+				case 3:
+					return HandType.FULL_HOUSE.getScore() | (RANK_SCORES[highRank] << 17) | RANK_SCORES[lowRank];
+				default:
+					return HandType.FULL_HOUSE.getScore() | (RANK_SCORES[lowRank] << 17) | RANK_SCORES[highRank];
+			}
+		}
+
+		// Straights and flushes need 5 different ranks.
+		if (rankCount != 5) {
+			return 0;
+		}
+
+		boolean straight = STRAIGHTS[ranks];
+		boolean flush = (mask & CardSet.suitCards(high & 3)) == mask;
+
+		if (flush) {
+			return (straight ? HandType.STRAIGHT_FLUSH : HandType.FLUSH).getScore() | CARD_SCORES[high];
+		}
+
+		return straight ? HandType.STRAIGHT.getScore() | CARD_SCORES[high] : 0;
+	}
+
+}
@@ -0,0 +1,137 @@
+package poker;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Process wide performance counters:
+ *    bot decision latency, a histogram per bot class
+ *    hands enumerated by the bots' move generator
+ *    Rules.checkHand rejections by error code
+ *    games played and games/sec by Tournament
+ * Off unless started with -Dpoker.metrics=true or setEnabled(true);
+ * when off, each instrumented call costs one static field read.
+ */
+
+public class Metrics {
+	private static volatile boolean enabled = Boolean.getBoolean("poker.metrics");
+
+	private static final ConcurrentHashMap<String, LatencyHistogram> decisions = new ConcurrentHashMap<String, LatencyHistogram>();
+	private static final LongAdder handsEnumerated = new LongAdder();
+	private static final LongAdder[] rejections = new LongAdder[-Rules.HAND_INVALID_STARTING_CARD + 1];
+	private static final LongAdder games = new LongAdder();
+	private static final LongAdder gameNanos = new LongAdder();
+	static {
+		for (int i = 0; i < rejections.length; i++) {
+			rejections[i] = new LongAdder();
+		}
+	}
+
+	private Metrics() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean on) {
+		enabled = on;
+	}
+
+	/**
+	 * Decision latency histogram for a bot class, created on first use.
+	 * Callers keep the histogram rather than looking it up every turn.
+	 */
+	public static LatencyHistogram decisionLatency(String bot) {
+		return decisions.computeIfAbsent(bot, b -> new LatencyHistogram());
+	}
+
+	/**
+	 * Latency histograms by bot class.
+	 */
+	public static Map<String, LatencyHistogram> getDecisionLatencies() {
+		return new TreeMap<String, LatencyHistogram>(decisions);
+	}
+
+	public static void countHandsEnumerated(int count) {
+		handsEnumerated.add(count);
+	}
+
+	public static long getHandsEnumerated() {
+		return handsEnumerated.sum();
+	}
+
+	/**
+	 * Count a rejected hand.
+	 * @param code Rules.HAND_INVALID... code
+	 */
+	public static void countRejection(int code) {
+		rejections[-code].increment();
+	}
+
+	/**
+	 * Rejections for a Rules.HAND_INVALID... code.
+	 */
+	public static long getRejections(int code) {
+		return rejections[-code].sum();
+	}
+
+	/**
+	 * Count games run in a period of wall clock time.
+	 */
+	public static void countGames(long count, long nanos) {
+		games.add(count);
+		gameNanos.add(nanos);
+	}
+
+	public static long getGames() {
+		return games.sum();
+	}
+
+	public static double getGamesPerSecond() {
+		long nanos = gameNanos.sum();
+		return nanos == 0 ? 0 : games.sum() / (nanos / 1e9);
+	}
+
+	/**
+	 * Zero every counter. Histograms are emptied rather than dropped, as
+	 * players hold on to the one they were given.
+	 */
+	public static void reset() {
+		for (LatencyHistogram h : decisions.values()) {
+			h.reset();
+		}
+		handsEnumerated.reset();
+		for (LongAdder r : rejections) {
+			r.reset();
+		}
+		games.reset();
+		gameNanos.reset();
+	}
+
+	/**
+	 * Everything, as a table for the console.
+	 */
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Decision latency (us)       count      mean       p50       p99     p99.9       max%n"));
+
+		for (Map.Entry<String, LatencyHistogram> e : getDecisionLatencies().entrySet()) {
+			LatencyHistogram h = e.getValue();
+			sb.append(String.format("%-20s %12d %9.1f %9.1f %9.1f %9.1f %9.1f%n", e.getKey(), h.getCount(),
+				h.getMean() / 1000, h.getPercentile(50) / 1000.0, h.getPercentile(99) / 1000.0,
+				h.getPercentile(99.9) / 1000.0, h.getMax() / 1000.0));
+		}
+
+		sb.append(String.format("%nHands enumerated: %d%n", getHandsEnumerated()));
+		sb.append(String.format("checkHand rejections: invalid=%d, not held=%d, too low=%d, no starting card=%d%n",
+			getRejections(Rules.HAND_INVALID), getRejections(Rules.HAND_INVALID_PLAYER_CARDS),
+			getRejections(Rules.HAND_INVALID_LOW_SCORE), getRejections(Rules.HAND_INVALID_STARTING_CARD)));
+		sb.append(String.format("Games: %d (%.0f games/sec)%n", getGames(), getGamesPerSecond()));
+
+		return sb.toString();
+	}
+}
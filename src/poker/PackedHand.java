@@ -0,0 +1,183 @@
+package poker;
+
+import poker.enums.HandType;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * A hand packed into a single long, for bots that search many candidate plays.
+ *
+ * Bits 0 - 51 hold the card mask (see CardSet) and bits 52 - 62 a dense
+ * strength: 0 for an invalid hand, otherwise ordered exactly like
+ * Hand.getScore() among hands of the same size. The sign bit is never
+ * set, so plain long comparison orders by strength and then by cards.
+ * Convert to a Hand only when handing a play to the Game.
+ */
+
+public final class PackedHand {
+	public static final long NONE = 0L;
+
+	private static final int STRENGTH_SHIFT = 52;
+
+	// Number of strengths used by each HandType (indexed by ordinal).
+	//   by high card: high card, pair, trips, straight, flush, straight flush
+	//   by rank: quads; by trips rank x pair rank: full house
+	//   by quads rank x kicker card: quads with kicker
+	private static final int[] SPANS = { 1, 52, 52, 52, 52, 52, 13 * 13, 13, 13 * 52, 52 };
+	private static final int[] BASES = new int[SPANS.length];
+	private static final HandType[] TYPES;
+	static {
+		int next = 0;
+		for (int t = 0; t < SPANS.length; t++) {
+			BASES[t] = next;
+			next += SPANS[t];
+		}
+
+		TYPES = new HandType[next];
+		for (HandType t : HandType.values()) {
+			for (int i = 0; i < SPANS[t.ordinal()]; i++) {
+				TYPES[BASES[t.ordinal()] + i] = t;
+			}
+		}
+	}
+
+	private PackedHand() {
+	}
+
+	/**
+	 * Pack a set of cards, scoring it with the default evaluator.
+	 * @param mask Card mask
+	 * @return packed hand (strength 0 if not a valid hand)
+	 */
+	public static long of(long mask) {
+		long score = HandEvaluator.getDefault().evaluate(mask);
+		return pack(mask, HandType.ofScore(score, Long.bitCount(mask)), score);
+	}
+
+	/**
+	 * Pack an existing Hand without scoring it again.
+	 */
+	public static long of(Hand h) {
+		return pack(h.getMask(), h.getType(), h.getScore());
+	}
+
+	/**
+	 * Unpack to a Hand.
+	 */
+	public static Hand toHand(long packed) {
+		return new Hand(mask(packed));
+	}
+
+	public static long mask(long packed) {
+		return packed & CardSet.ALL;
+	}
+
+	public static int size(long packed) {
+		return Long.bitCount(packed & CardSet.ALL);
+	}
+
+	public static int strength(long packed) {
+		return (int) (packed >>> STRENGTH_SHIFT);
+	}
+
+	public static HandType type(long packed) {
+		return TYPES[strength(packed)];
+	}
+
+	public static boolean isValid(long packed) {
+		return strength(packed) != 0;
+	}
+
+	/**
+	 * Order by strength, then by cards (lowest first).
+	 */
+	public static int compare(long a, long b) {
+		return Long.compare(a, b);
+	}
+
+	/**
+	 * Can play follow last? Same size and not lower, as Rules.checkHand.
+	 */
+	public static boolean beats(long play, long last) {
+		return size(play) == size(last) && strength(play) >= strength(last);
+	}
+
+	/**
+	 * The lowest packed value with a strength above this hand's,
+	 * for searching sorted arrays of packed hands.
+	 */
+	public static long above(long packed) {
+		return (long) (strength(packed) + 1) << STRENGTH_SHIFT;
+	}
+
+	/**
+	 * Relabel the suits of a packed hand (see SuitSymmetry).
+	 * Only the card that breaks ties moves, so the hand is not scored again.
+	 */
+	public static long permute(long packed, int permutation) {
+		if (permutation == SuitSymmetry.IDENTITY) {
+			return packed;
+		}
+
+		long mask = SuitSymmetry.permute(mask(packed), permutation);
+		int strength = strength(packed);
+		HandType type = TYPES[strength];
+		int base = BASES[type.ordinal()];
+
+		switch (type) {
+			case INVALID:
+			case QUADS:
+			case FULL_HOUSE:
+				break;
+
+			case QUADS_WITH_KICKER:
+				int quads = (strength - base) / 52;
+				strength = base + quads * 52 + CardSet.highIndex(mask & ~CardSet.rankCards(quads));
+				break;
+
+			default:
+				strength = base + CardSet.highIndex(mask);
+				break;
+		}
+
+		return ((long) strength << STRENGTH_SHIFT) | mask;
+	}
+
+	/**
+	 * Dense strength for a scored hand.
+	 */
+	private static long pack(long mask, HandType type, long score) {
+		int strength = BASES[type.ordinal()];
+
+		switch (type) {
+			case INVALID:
+				break;
+
+			case QUADS:
+				strength += CardSet.highIndex(mask) >> 2;
+				break;
+
+			case FULL_HOUSE:
+				// score holds the trips rank << 17 and the pair rank
+				strength += rankOf(score >>> 17) * 13 + rankOf(score);
+				break;
+
+			case QUADS_WITH_KICKER:
+				int quads = rankOf(score >>> 17);
+				strength += quads * 52 + CardSet.highIndex(mask & ~CardSet.rankCards(quads));
+				break;
+
+			default:
+				strength += CardSet.highIndex(mask);
+				break;
+		}
+
+		return ((long) strength << STRENGTH_SHIFT) | mask;
+	}
+
+	/**
+	 * Rank (0 = twos) of the rank score bits 4 - 16.
+	 */
+	private static int rankOf(long rankBits) {
+		return Long.numberOfTrailingZeros(rankBits & 0x1FFF0) - 4;
+	}
+}
@@ -0,0 +1,134 @@
+package poker;
+
+import poker.enums.HandType;
+import poker.enums.Rank;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Hand evaluation by walking the cards and counting ranks.
+ * This is the original Hand validation logic and serves as the
+ * reference the faster evaluators are checked against.
+ */
+
+class ReferenceHandEvaluator extends HandEvaluator {
+
+	@Override
+	public long evaluate(long mask) {
+		int handSize = Long.bitCount(mask);
+
+		// A player can play between 1 to 5 card per turn.
+		if (handSize < 1 || handSize > Rules.MAX_HAND_SIZE) {
+			return 0;
+		}
+
+		Card first = CardSet.first(mask);
+		Card last = CardSet.last(mask);
+
+		// Hands that are less than 5 cards may only be X-of-a-kind.
+		// X-of-a-kind score is the value of the highest card in the hand
+		if (handSize < 5) {
+			return evaluateOfAKind(first, last, handSize);
+		}
+
+		// 5 card hand must be one of the following:
+		//    - 4 of a kind with kicker,
+		//    - straight,
+		//    - flush,
+		//    - full house.
+		long ranksAndSuits = 0L;
+		int r1 = 0;
+		Rank r = null;
+
+		for (long m = mask; m != 0; m &= ~Long.highestOneBit(m)) {
+			Card c = Card.ofIndex(CardSet.highIndex(m));
+			ranksAndSuits |= c.getScore();
+
+			if (r == null) {
+				r = c.getRank();
+				++r1;
+			} else if (c.getRank() == r) {
+				++r1;
+			}
+		}
+
+		long ranks = ranksAndSuits & 0xFFFF0;
+		long suits = ranksAndSuits & 0xF;
+
+		// Full house or quads with kicker.
+		if (Long.bitCount(ranks) == 2) {
+			return evaluateFullHouseOrQuads(first, last, r1);
+		}
+
+		return evaluateStraightsAndFlushes(first, last, ranks, suits);
+	}
+
+	/**
+	 * Score high card, pair, trips, quads (no kicker).
+	 */
+	private long evaluateOfAKind(Card first, Card last, int size) {
+		if (first.getRank() != last.getRank()) {
+			return 0;
+		}
+
+		HandType type = HandType.valueOf(size);
+		if (size < 4) {
+			return type.getScore() | first.getScore();
+		}
+
+		return type.getScore() | (first.getRank().getScore() << 17);
+	}
+
+	/**
+	 * Score full houses and quads with kicker.
+	 */
+	private long evaluateFullHouseOrQuads(Card first, Card last, int r1) {
+		Card main, kicker;
+
+		if (r1 == 4 || r1 == 1) {
+			if (r1 == 4) {
+				main = first;
+				kicker = last;
+			} else {
+				main = last;
+				kicker = first;
+			}
+
+			return HandType.QUADS_WITH_KICKER.getScore() | (main.getRank().getScore() << 17) | kicker.getScore();
+		}
+
+		if (r1 == 3) {
+			main = first;
+			kicker = last;
+		} else {
+			main = last;
+			kicker = first;
+		}
+
+		return HandType.FULL_HOUSE.getScore() | (main.getRank().getScore() << 17) | kicker.getRank().getScore();
+	}
+
+	/**
+	 * Score straight or flush or straight flush
+	 */
+	private long evaluateStraightsAndFlushes(Card first, Card last, long ranks, long suits) {
+		HandType type = HandType.INVALID;
+
+		// Straight.
+		if (Long.bitCount(ranks) == 5) {
+			if ((first.getRank().getScore() >> 4) == last.getRank().getScore()) {
+				type = HandType.STRAIGHT;
+			}
+		}
+
+		// Flush or straight flush.
+		if (Long.bitCount(suits) == 1) {
+			type = (type == HandType.STRAIGHT) ? HandType.STRAIGHT_FLUSH : HandType.FLUSH;
+		}
+
+		if (type == HandType.INVALID) {
+			return 0;
+		}
+
+		return type.getScore() | first.getScore();
+	}
+}
@@ -1,7 +1,5 @@
 package poker;
 
-import java.util.TreeSet;
-
 import poker.player.Player;
 
 public class Rules {
@@ -18,18 +16,27 @@ public class Rules {
 	public static final int HAND_INVALID_STARTING_CARD = -4;
 	
 	public static int checkHand(Player player, Hand hand, Hand last, Card mustPlay) {
+		int result = check(player, hand, last, mustPlay);
+		if (result != HAND_VALID && Metrics.isEnabled()) {
+			Metrics.countRejection(result);
+		}
+		
+		return result;
+	}
+	
+	private static int check(Player player, Hand hand, Hand last, Card mustPlay) {
 		// You must play a valid collection of cards.
 		if (!hand.isValid()) {
 			return HAND_INVALID;
 		}		
 		
 		// You have to play cards you hold.
-		if (!player.getCards().containsAll(hand.getCards())) {
+		if (!CardSet.containsAll(player.getCardMask(), hand.getMask())) {
 			return HAND_INVALID_PLAYER_CARDS;
 		}
 		
 		// Enforce starting card rule
-		if (mustPlay != null && !hand.getCards().contains(mustPlay)) {
+		if (mustPlay != null && (hand.getMask() & mustPlay.getMask()) == 0) {
 			return HAND_INVALID_STARTING_CARD;
 		}
 				
@@ -43,4 +50,20 @@ public class Rules {
 		
 		return HAND_VALID;
 	}
+	
+	/**
+	 * The move made for a player who runs out of time:
+	 * pass when following, otherwise the lowest card held,
+	 * which is also the starting card on the opening lead.
+	 * @param cards Cards held (see CardSet)
+	 * @param last Hand to beat, null on a lead
+	 * @return Hand, or null to pass
+	 */
+	public static Hand defaultHand(long cards, Hand last) {
+		if (last != null || cards == CardSet.EMPTY) {
+			return null;
+		}
+		
+		return new Hand(CardSet.lowest(cards, 1));
+	}
 }
@@ -0,0 +1,88 @@
+package poker;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Suit relabelling of card masks (see CardSet).
+ *
+ * Holdings that differ only by a permutation of suits have the same shape:
+ * the same valid hands, relabelled. canonicalPermutation() picks one
+ * relabelling per shape, so caches can key on the canonical mask and map
+ * entries back with the inverse. Suits do break ties (Suit.getScore()),
+ * so hand scores must be computed again after relabelling.
+ *
+ * A permutation is an int holding the new suit (0 - 3) of suit s in
+ * bits 2s - 2s+1.
+ */
+
+public final class SuitSymmetry {
+	public static final int IDENTITY = 0 | 1 << 2 | 2 << 4 | 3 << 6;
+
+	// Every club: suit s of a mask is (mask >>> s) & CLUBS.
+	private static final long CLUBS = 0x1111111111111L;
+
+	private SuitSymmetry() {
+	}
+
+	/**
+	 * Permutation to the canonical form of a mask: suits are ordered by
+	 * their ranks held, so suit 0 (clubs) gets the suit with the highest
+	 * ranks and suit 3 (spades) the lowest. Suits holding the same ranks
+	 * keep their order.
+	 */
+	public static int canonicalPermutation(long mask) {
+		long c = mask & CLUBS;
+		long d = (mask >>> 1) & CLUBS;
+		long h = (mask >>> 2) & CLUBS;
+		long s = (mask >>> 3) & CLUBS;
+
+		// new suit of each suit = number of suits that come before it
+		int pc = (d > c ? 1 : 0) + (h > c ? 1 : 0) + (s > c ? 1 : 0);
+		int pd = (c >= d ? 1 : 0) + (h > d ? 1 : 0) + (s > d ? 1 : 0);
+		int ph = (c >= h ? 1 : 0) + (d >= h ? 1 : 0) + (s > h ? 1 : 0);
+		int ps = (c >= s ? 1 : 0) + (d >= s ? 1 : 0) + (h >= s ? 1 : 0);
+
+		return pc | pd << 2 | ph << 4 | ps << 6;
+	}
+
+	/**
+	 * Canonical form of a mask: the same for every suit relabelling of it.
+	 */
+	public static long canonical(long mask) {
+		return permute(mask, canonicalPermutation(mask));
+	}
+
+	/**
+	 * Relabel the suits of a mask.
+	 */
+	public static long permute(long mask, int permutation) {
+		if (permutation == IDENTITY) {
+			return mask;
+		}
+
+		long ret = 0;
+		for (int suit = 0; suit < 4; suit++) {
+			ret |= ((mask >>> suit) & CLUBS) << target(permutation, suit);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * The permutation that undoes another.
+	 */
+	public static int inverse(int permutation) {
+		int ret = 0;
+		for (int suit = 0; suit < 4; suit++) {
+			ret |= suit << (2 * target(permutation, suit));
+		}
+
+		return ret;
+	}
+
+	/**
+	 * New suit of a suit (0 - 3).
+	 */
+	public static int target(int permutation, int suit) {
+		return (permutation >>> (2 * suit)) & 3;
+	}
+}
@@ -0,0 +1,291 @@
+package poker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import poker.player.GameListener;
+import poker.player.Player;
+import poker.player.PlayerInput;
+import poker.player.bots.PlayerAIBase;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * One game hosted by a TableManager.
+ * Players join until the seats are full, then the game plays on its own
+ * thread; observers see its messages and anyone may wait for the result.
+ * A human's moves come from their PlayerInput, which should wait by
+ * parking (e.g. a BlockingQueue, not synchronized/wait) so a virtual
+ * thread running the table can unmount while the player thinks.
+ */
+
+public class Table {
+	public static final int WAITING = 1;
+	public static final int PLAYING = 2;
+	public static final int FINISHED = 3;
+
+	private final TableManager manager;
+	private final long id;
+	private final int seatCount;
+	private final ArrayList<Player> players;
+	private final List<GameListener> observers = new CopyOnWriteArrayList<GameListener>();
+	private final CountDownLatch finished = new CountDownLatch(1);
+	private volatile int state = WAITING;
+	private volatile ArrayList<Player> results;
+	private volatile RuntimeException failure;
+	private volatile Thread thread;
+	private volatile boolean cancelled;
+	private Consumer<Table> finishListener;
+
+	Table(TableManager owner, long tableId, int seats) {
+		manager = owner;
+		id = tableId;
+		seatCount = seats;
+		players = new ArrayList<Player>(seats);
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * WAITING, PLAYING or FINISHED.
+	 */
+	public int getState() {
+		return state;
+	}
+
+	public int getSeatCount() {
+		return seatCount;
+	}
+
+	/**
+	 * Players seated so far, in joining order.
+	 */
+	public synchronized List<Player> getPlayers() {
+		return new ArrayList<Player>(players);
+	}
+
+	/**
+	 * Seat a human. The game starts when the last seat is taken.
+	 * @param input Where their moves come from
+	 * @return The player, positions are given in joining order
+	 */
+	public Player join(String name, PlayerInput input) {
+		return seat(name, new TimedInput(input), null);
+	}
+
+	/**
+	 * Seat a bot. The game starts when the last seat is taken.
+	 */
+	public Player addBot(String name, PlayerAIBase ai) {
+		return seat(name, null, ai);
+	}
+
+	/**
+	 * Send the game's messages to an observer as well as the players.
+	 */
+	public void observe(GameListener observer) {
+		observers.add(observer);
+	}
+
+	/**
+	 * Called once when the table finishes, whether it played, failed or
+	 * was cancelled: on the table's thread after a game, otherwise on the
+	 * thread that cancelled it. Set before the last seat is taken.
+	 */
+	public void setFinishListener(Consumer<Table> listener) {
+		finishListener = listener;
+	}
+
+	/**
+	 * Wait for the game to finish.
+	 * @return Players, winner first; null if it failed, was cancelled,
+	 *         or did not finish in time
+	 */
+	public ArrayList<Player> awaitResults(long timeoutMillis) throws InterruptedException {
+		if (!finished.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+			return null;
+		}
+
+		return results;
+	}
+
+	/**
+	 * Players, winner first, once FINISHED (null if it did not play out).
+	 */
+	public ArrayList<Player> getResults() {
+		return results;
+	}
+
+	/**
+	 * Why the game failed, if it did.
+	 */
+	public RuntimeException getFailure() {
+		return failure;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Stop the table. A waiting table finishes at once; a game in play
+	 * is interrupted, so seats waiting for input give up their moves
+	 * (see Rules.defaultHand()) and the game plays out quickly.
+	 */
+	public void cancel() {
+		cancelled = true;
+
+		synchronized (this) {
+			if (state == WAITING) {
+				manager.tableFinished(this, false);
+				finish();
+				return;
+			}
+		}
+
+		Thread t = thread;
+		if (t != null) {
+			t.interrupt();
+		}
+	}
+
+	private Player seat(String name, PlayerInput input, PlayerAIBase ai) {
+		Player p;
+		synchronized (this) {
+			if (state != WAITING) {
+				throw new IllegalStateException("table " + id + " is not open");
+			}
+
+			int position = players.size() + 1;
+			p = ai != null ? new Player(Player.BOT, position, name, ai) : new Player(position, name, input);
+			players.add(p);
+
+			if (players.size() < seatCount) {
+				return p;
+			}
+
+			state = PLAYING;
+		}
+
+		manager.start(this);
+		return p;
+	}
+
+	/**
+	 * Play the game (table thread).
+	 */
+	void play() {
+		thread = Thread.currentThread();
+
+		try {
+			if (!cancelled) {
+				// always there, so observers that come once the game is under way are heard
+				Game game = new Game(players);
+				game.addObserver(new Observers());
+
+				results = game.run();
+			}
+		} catch (RuntimeException e) {
+			failure = e;
+			Logger.error("table %d failed: %s", id, e);
+		} finally {
+			thread = null;
+			manager.tableFinished(this, true);
+
+			// a cancel() that raced the end of the game is not left pending
+			Thread.interrupted();
+
+			synchronized (this) {
+				finish();
+			}
+		}
+	}
+
+	/**
+	 * Give up on a full table that could not be started.
+	 */
+	void abandon() {
+		cancelled = true;
+		manager.tableFinished(this, true);
+
+		synchronized (this) {
+			finish();
+		}
+	}
+
+	/**
+	 * Mark the table finished and tell the listener, then whoever is waiting.
+	 */
+	private void finish() {
+		state = FINISHED;
+
+		if (finishListener != null) {
+			try {
+				finishListener.accept(this);
+			} catch (RuntimeException e) {
+				Logger.error("table %d finish listener failed: %s", id, e);
+			}
+		}
+
+		finished.countDown();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Table(%d, %d/%d seats)", id, players.size(), seatCount);
+	}
+
+	/**
+	 * Times how long a human takes to move.
+	 */
+	private class TimedInput implements PlayerInput {
+		private final PlayerInput input;
+
+		TimedInput(PlayerInput playerInput) {
+			if (playerInput == null) {
+				throw new IllegalArgumentException("human player requires input");
+			}
+
+			input = playerInput;
+		}
+
+		@Override
+		public Hand getPlayerHand(Player p, Hand last) {
+			long start = System.nanoTime();
+			manager.decisionWaiting(1);
+			try {
+				return input.getPlayerHand(p, last);
+			} finally {
+				manager.decisionWaiting(-1);
+				manager.getDecisionWaits().record(System.nanoTime() - start);
+			}
+		}
+
+		@Override
+		public void raiseInvalidHand(Player p, int errorType) {
+			input.raiseInvalidHand(p, errorType);
+		}
+
+		@Override
+		public void postMessage(String format, Object ... args) {
+			input.postMessage(format, args);
+		}
+	}
+
+	/**
+	 * The game's messages to every observer, including late ones.
+	 */
+	private class Observers implements GameListener {
+		@Override
+		public void postMessage(String format, Object ... args) {
+			for (GameListener o : observers) {
+				o.postMessage(format, args);
+			}
+		}
+	}
+}
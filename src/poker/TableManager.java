@@ -0,0 +1,188 @@
+package poker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Hosts many tables at once, each playing its Game on its own thread
+ * from the thread factory.
+ * Game.run() waits on each move, so a table holds its thread while a
+ * human thinks; on JVMs with virtual threads, pass
+ * Thread.ofVirtual().factory() and that wait costs no platform thread.
+ * Tracks the tables in each state and how long humans take to move.
+ *
+ * The default table threads are daemons, so they do not keep the JVM up
+ * once the program is done; call shutdown() to cancel the tables still
+ * open or playing and stop the threads.
+ */
+
+public class TableManager {
+	private static final AtomicInteger threadCount = new AtomicInteger();
+
+	private ThreadFactory threadFactory = TableManager::newTableThread;
+	private ExecutorService threads;
+	private final ConcurrentHashMap<Long, Table> tables = new ConcurrentHashMap<Long, Table>();
+	private final AtomicLong nextId = new AtomicLong();
+	private final AtomicInteger activeTables = new AtomicInteger();
+	private final AtomicLong tablesFinished = new AtomicLong();
+	private final AtomicInteger waitingSeats = new AtomicInteger();
+	private final LatencyHistogram decisionWaits = new LatencyHistogram();
+	private volatile boolean shutdown;
+
+	/**
+	 * Set the factory used to create table threads, before the first
+	 * table starts. Its threads should be daemons unless the caller is
+	 * sure to call shutdown().
+	 */
+	public synchronized void setThreadFactory(ThreadFactory factory) {
+		if (threads != null) {
+			throw new IllegalStateException("tables already started");
+		}
+
+		threadFactory = factory;
+	}
+
+	/**
+	 * Open a table. It starts when every seat is taken (Table.join(), Table.addBot()).
+	 */
+	public Table createTable(int seats) {
+		if (seats < 2 || seats > Rules.MAX_PLAYERS) {
+			throw new IllegalArgumentException(String.format("2 - %d seats", Rules.MAX_PLAYERS));
+		}
+
+		if (shutdown) {
+			throw new IllegalStateException("table manager shut down");
+		}
+
+		Table t = new Table(this, nextId.incrementAndGet(), seats);
+		tables.put(t.getId(), t);
+		return t;
+	}
+
+	/**
+	 * A table that has not finished, or null.
+	 */
+	public Table getTable(long id) {
+		return tables.get(id);
+	}
+
+	/**
+	 * Tables that have not finished, waiting for players or playing.
+	 */
+	public List<Table> getTables() {
+		return new ArrayList<Table>(tables.values());
+	}
+
+	/**
+	 * Tables playing now.
+	 */
+	public int getActiveTables() {
+		return activeTables.get();
+	}
+
+	/**
+	 * Tables waiting for players.
+	 */
+	public int getOpenTables() {
+		return tables.size() - activeTables.get();
+	}
+
+	public long getTablesCreated() {
+		return nextId.get();
+	}
+
+	public long getTablesFinished() {
+		return tablesFinished.get();
+	}
+
+	/**
+	 * Humans being waited on now.
+	 */
+	public int getWaitingSeats() {
+		return waitingSeats.get();
+	}
+
+	/**
+	 * Time humans take to move, in nanoseconds.
+	 */
+	public LatencyHistogram getDecisionWaits() {
+		return decisionWaits;
+	}
+
+	/**
+	 * Cancel every table and stop their threads.
+	 */
+	public void shutdown() {
+		shutdown = true;
+
+		for (Table t : tables.values()) {
+			t.cancel();
+		}
+
+		synchronized (this) {
+			if (threads != null) {
+				threads.shutdown();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("TableManager(%d open, %d playing, %d finished, %d seats waiting, decision wait %s)",
+				getOpenTables(), getActiveTables(), getTablesFinished(), getWaitingSeats(), decisionWaits);
+	}
+
+	/**
+	 * Play a full table on a new thread.
+	 */
+	void start(Table t) {
+		ExecutorService pool;
+		synchronized (this) {
+			if (threads == null) {
+				threads = Executors.newCachedThreadPool(threadFactory);
+			}
+
+			pool = threads;
+		}
+
+		activeTables.incrementAndGet();
+		try {
+			pool.execute(t::play);
+		} catch (RuntimeException e) {
+			t.abandon();
+			throw new IllegalStateException("table manager shut down", e);
+		}
+	}
+
+	/**
+	 * Default table thread: a daemon, named for thread dumps.
+	 */
+	private static Thread newTableThread(Runnable r) {
+		Thread t = new Thread(r, "poker-table-" + threadCount.incrementAndGet());
+		t.setDaemon(true);
+		return t;
+	}
+
+	/**
+	 * A table is done with.
+	 * @param played It was started (counted as active)
+	 */
+	void tableFinished(Table t, boolean played) {
+		tables.remove(t.getId());
+		if (played) {
+			activeTables.decrementAndGet();
+		}
+		tablesFinished.incrementAndGet();
+	}
+
+	void decisionWaiting(int change) {
+		waitingSeats.addAndGet(change);
+	}
+}
@@ -0,0 +1,203 @@
+package poker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Collectors;
+
+import poker.player.Player;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Headless multi-game runner for bot-only lineups.
+ * Games are sharded across a pool of workers. Each worker plays with its own
+ * copy of the lineup, and the per-seat results are merged once all shards finish.
+ */
+
+public class Tournament {
+	private List<Player> lineup;
+	private int threadCount;
+	private ThreadFactory threadFactory;
+	private Long seed;
+	private GameRecorder recorder;
+	private long moveDeadline;
+	private long elapsedNanos;
+	private int gamesPlayed;
+
+	/**
+	 * Create a tournament for a lineup of bots.
+	 * @param players Players (all bots)
+	 */
+	public Tournament(List<Player> players) {
+		for (Player p : players) {
+			if (!p.isBot()) {
+				throw new IllegalArgumentException("tournament requires bot players only");
+			}
+		}
+
+		lineup = new ArrayList<Player>(players);
+		threadCount = Runtime.getRuntime().availableProcessors();
+		threadFactory = Executors.defaultThreadFactory();
+	}
+
+	/**
+	 * Set the number of workers.
+	 */
+	public void setThreadCount(int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("thread count must be positive");
+		}
+
+		threadCount = count;
+	}
+
+	/**
+	 * Set the factory used to create worker threads.
+	 * On JVMs with virtual threads, pass Thread.ofVirtual().factory().
+	 */
+	public void setThreadFactory(ThreadFactory factory) {
+		threadFactory = factory;
+	}
+
+	/**
+	 * Make runs reproducible: game n is played with a seed derived
+	 * from this one, whatever the number of workers.
+	 */
+	public void setSeed(long masterSeed) {
+		seed = masterSeed;
+	}
+
+	/**
+	 * Send every game to a recorder. It is called from all the workers.
+	 */
+	public void setRecorder(GameRecorder gameRecorder) {
+		recorder = gameRecorder;
+	}
+
+	/**
+	 * Limit each bot move to a deadline; late moves are replaced by
+	 * Rules.defaultHand() and counted in GameResults.getTimeouts().
+	 * The moves run on threads from the thread factory.
+	 * @param millis Deadline per move, 0 for none
+	 */
+	public void setMoveDeadline(long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("move deadline must not be negative");
+		}
+		
+		moveDeadline = millis;
+	}
+	
+	/**
+	 * Play a number of games.
+	 * @param gameCount Number of games
+	 * @return Results for each player in the lineup, best score first
+	 */
+	public List<GameResults> run(int gameCount) {
+		int workers = Math.max(1, Math.min(threadCount, gameCount));
+		ExecutorService pool = Executors.newFixedThreadPool(workers, threadFactory);
+		ExecutorService deciders = moveDeadline > 0 ? Executors.newCachedThreadPool(threadFactory) : null;
+		List<Future<HashMap<Integer, GameResults>>> shards = new ArrayList<Future<HashMap<Integer, GameResults>>>();
+		long start = System.nanoTime();
+
+		try {
+			int next = 0;
+			for (int w = 0; w < workers; w++) {
+				// spread the remainder over the first few workers
+				int first = next;
+				int last = first + gameCount / workers + (w < gameCount % workers ? 1 : 0);
+				shards.add(pool.submit(() -> playShard(first, last, deciders)));
+				next = last;
+			}
+
+			HashMap<Integer, GameResults> merged = new HashMap<Integer, GameResults>();
+			for (Player p : lineup) {
+				merged.put(p.getPosition(), new GameResults(p));
+			}
+
+			for (Future<HashMap<Integer, GameResults>> shard : shards) {
+				for (GameResults r : shard.get().values()) {
+					merged.get(r.getPlayer().getPosition()).merge(r);
+				}
+			}
+
+			elapsedNanos = System.nanoTime() - start;
+			gamesPlayed = gameCount;
+			if (Metrics.isEnabled()) {
+				Metrics.countGames(gameCount, elapsedNanos);
+			}
+
+			return merged.values().stream()
+					.sorted((a, b) -> b.getScore() - a.getScore())
+					.collect(Collectors.toList());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Tournament interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Tournament game failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+			if (deciders != null) {
+				deciders.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Wall clock time of the last run in milliseconds.
+	 */
+	public long getElapsedMillis() {
+		return elapsedNanos / 1000000L;
+	}
+
+	/**
+	 * Throughput of the last run.
+	 */
+	public double getGamesPerSecond() {
+		return elapsedNanos == 0 ? 0 : gamesPlayed / (elapsedNanos / 1e9);
+	}
+
+	/**
+	 * Play a shard of games on a private copy of the lineup.
+	 * @param first First game number
+	 * @param last Last game number (exclusive)
+	 * @param deciders Runs bot moves when there is a move deadline
+	 * @return results keyed by seat position
+	 */
+	private HashMap<Integer, GameResults> playShard(int first, int last, ExecutorService deciders) {
+		ArrayList<Player> players = new ArrayList<Player>();
+		HashMap<Integer, GameResults> results = new HashMap<Integer, GameResults>();
+
+		for (Player p : lineup) {
+			Player copy = p.copy();
+			players.add(copy);
+			results.put(copy.getPosition(), new GameResults(copy));
+		}
+
+		for (int i = first; i < last; i++) {
+			Game game = (seed == null) ? new Game(players) : new Game(players, Deck.deriveSeed(seed, i));
+			if (recorder != null) {
+				game.setRecorder(recorder);
+			}
+			if (deciders != null) {
+				game.setMoveDeadline(moveDeadline, deciders);
+			}
+			ArrayList<Player> ret = game.run();
+
+			for (int place = 0; place < ret.size(); place++) {
+				results.get(ret.get(place).getPosition()).processGameResult(place);
+			}
+		}
+
+		for (Player p : players) {
+			results.get(p.getPosition()).addTimeouts(p.getTimeouts());
+		}
+
+		return results;
+	}
+}
@@ -2,36 +2,32 @@ package poker;
 
 import java.util.TreeSet;
 
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.regex.Matcher;
+import poker.io.CardFormatter;
+import poker.io.CardParser;
 
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
  */
 
 public class Utils {
-	// Match card format, case insensitive. 
-	// Also ignores whitespace.
-	public static final Pattern cardPattern = Pattern.compile("[2-9tjqkaTJQKA]{1}[cdshCDSH]{1}");
 	
+	/**
+	 * Parse cards such as "5d 5c" or "AdKd" (see CardParser).
+	 * @return Cards, or null if the string is malformed
+	 */
 	public static TreeSet<Card> getCardsFromString(String cardStr) {
-		TreeSet<Card> ret = new TreeSet<Card>();
-		Matcher m = cardPattern.matcher(cardStr);
-		
-		while (m.find()) {
-			Card c = Card.ofValue(m.group());
-			if (c == null) {
-				return null; // invalid card
-			}
-			
-			ret.add(c);
+		long mask = CardParser.parse(cardStr);
+		if (CardParser.isError(mask)) {
+			return null; // invalid card
 		}
 		
-		return ret;
+		return CardSet.toTreeSet(mask);
 	}
 	
+	/**
+	 * Cards as labels, high card first, e.g. "As Td 5c" (see CardFormatter).
+	 */
 	public static String getCardString(TreeSet<Card> cards) {
-		return cards.stream().map(c -> c.toString()).collect(Collectors.joining(" "));
+		return CardFormatter.format(CardSet.maskOf(cards));
 	}
 }
@@ -1,7 +1,6 @@
 package poker.enums;
 
 import java.security.InvalidParameterException;
-import java.util.HashMap;
 
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
@@ -38,22 +37,37 @@ public enum HandType {
 	}
 	
 	public static HandType valueOf(int numCards) {
-		HandType type = cardMap.get(numCards);
-		
-		if (type == null) {
+		if (numCards < 0 || numCards >= bySize.length) {
 			throw new InvalidParameterException("Unable to find HandType");
 		}
 		
-		return type;
+		return bySize[numCards];
 	}
 	
-	private static HashMap<Integer, HandType> cardMap = new HashMap<Integer, HandType>();
-	static {
-		cardMap.put(0, HandType.INVALID);
-		cardMap.put(1, HandType.HIGH_CARD);
-		cardMap.put(2, HandType.PAIR);
-		cardMap.put(3, HandType.TRIPS);
-		cardMap.put(4, HandType.QUADS);
-		cardMap.put(5, HandType.STRAIGHT);
+	/**
+	 * Recover the type from a hand score.
+	 * Quads and quads with kicker share a base score, so the size is needed.
+	 */
+	public static HandType ofScore(long score, int numCards) {
+		if (score == 0) {
+			return INVALID;
+		}
+		
+		HandType type = scoreMap[63 - Long.numberOfLeadingZeros(score) - 34];
+		if (type == QUADS && numCards == 5) {
+			return QUADS_WITH_KICKER;
+		}
+		
+		return type;
 	}
+	
+	// Indexed by the position of the type bit, less 34.
+	private static HandType[] scoreMap = { 
+		HIGH_CARD, PAIR, TRIPS, STRAIGHT, FLUSH, FULL_HOUSE, QUADS, STRAIGHT_FLUSH 
+	};
+	
+	// Basic type for a number of cards.
+	private static HandType[] bySize = { 
+		INVALID, HIGH_CARD, PAIR, TRIPS, QUADS, STRAIGHT 
+	};
 }
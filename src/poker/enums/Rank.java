@@ -1,8 +1,5 @@
 package poker.enums;
 
-import java.security.InvalidParameterException;
-import java.util.HashMap;
-
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
  * Card Rank (Two -> Ace)
@@ -64,21 +61,31 @@ public enum Rank {
 	}
 	
 	// Helper methods for creating Ranks from the values or the string format.
+	// Lookups are array loads, no boxing or string hashing.
 	
 	public static Rank ofValue(int id) {
-		return valMap.get(id);
+		return id >= 0 && id < ranksById.length ? ranksById[id] : null;
 	}
 	
 	public static Rank ofValue(String lbl) {
-		return lblMap.get(lbl.toUpperCase());
+		return lbl.length() == 1 ? ofLabel(lbl.charAt(0)) : null;
+	}
+	
+	/**
+	 * Rank for a label character, either case.
+	 * @return Rank, or null if c is not a rank label
+	 */
+	public static Rank ofLabel(char c) {
+		return c < ranksByLabel.length ? ranksByLabel[c] : null;
 	}
 	
-	private static HashMap<String, Rank> lblMap = new HashMap<String, Rank>();
-	private static HashMap<Integer, Rank> valMap = new HashMap<Integer, Rank>();
+	private static final Rank[] ranksById = new Rank[14];
+	private static final Rank[] ranksByLabel = new Rank[128];
 	static {
 		for (Rank r : Rank.values()) {
-			valMap.put(r.rankId, r);
-			lblMap.put(r.label, r);
+			ranksById[r.rankId] = r;
+			ranksByLabel[Character.toUpperCase(r.label.charAt(0))] = r;
+			ranksByLabel[Character.toLowerCase(r.label.charAt(0))] = r;
 		}
 	}
 }
\ No newline at end of file
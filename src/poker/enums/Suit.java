@@ -1,8 +1,5 @@
 package poker.enums;
 
-import java.security.InvalidParameterException;
-import java.util.HashMap;
-
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
  * The card suit.
@@ -55,20 +52,30 @@ public enum Suit {
 	}
 	
 	// Helper methods for creating the suits.
+	// Lookups are array loads, no boxing or string hashing.
 	public static Suit ofValue(int id) {
-		return valMap.get(id);
+		return id >= 0 && id < suitsById.length ? suitsById[id] : null;
 	}
 	
 	public static Suit ofValue(String lbl) {
-		return lblMap.get(lbl.toLowerCase());
+		return lbl.length() == 1 ? ofLabel(lbl.charAt(0)) : null;
+	}
+	
+	/**
+	 * Suit for a label character, either case.
+	 * @return Suit, or null if c is not a suit label
+	 */
+	public static Suit ofLabel(char c) {
+		return c < suitsByLabel.length ? suitsByLabel[c] : null;
 	}
 	
-	private static HashMap<String, Suit> lblMap = new HashMap<String, Suit>();
-	private static HashMap<Integer, Suit> valMap = new HashMap<Integer, Suit>();
+	private static final Suit[] suitsById = new Suit[5];
+	private static final Suit[] suitsByLabel = new Suit[128];
 	static {
 		for (Suit s : Suit.values()) {
-			valMap.put(s.suitId, s);
-			lblMap.put(s.label, s);
+			suitsById[s.suitId] = s;
+			suitsByLabel[Character.toUpperCase(s.label.charAt(0))] = s;
+			suitsByLabel[Character.toLowerCase(s.label.charAt(0))] = s;
 		}
 	}
 }
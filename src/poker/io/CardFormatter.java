@@ -0,0 +1,97 @@
+package poker.io;
+
+import java.nio.ByteBuffer;
+
+import poker.CardSet;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Writes card masks (see CardSet) as labels, high card first and space
+ * separated, e.g. "As Td 5c", the inverse of CardParser. Labels come
+ * from a table by card index, so no Card objects, streams or
+ * intermediate strings are made; the append and put forms write into
+ * a caller's reusable StringBuilder or buffer.
+ */
+
+public final class CardFormatter {
+	// Two characters per card index.
+	private static final char[] LABELS = new char[52 * 2];
+	static {
+		String ranks = "23456789TJQKA";
+		String suits = "cdhs";
+		for (int i = 0; i < 52; i++) {
+			LABELS[i * 2] = ranks.charAt(i >> 2);
+			LABELS[i * 2 + 1] = suits.charAt(i & 3);
+		}
+	}
+
+	private CardFormatter() {
+	}
+
+	/**
+	 * Label of a card.
+	 * @param index Card index (see Card.getIndex())
+	 */
+	public static String label(int index) {
+		return new String(LABELS, index * 2, 2);
+	}
+
+	/**
+	 * Number of characters format() writes.
+	 */
+	public static int length(long mask) {
+		int n = Long.bitCount(mask);
+		return n == 0 ? 0 : n * 3 - 1;
+	}
+
+	public static String format(long mask) {
+		char[] out = new char[length(mask)];
+		int next = 0;
+		for (long m = mask; m != CardSet.EMPTY; m &= ~Long.highestOneBit(m)) {
+			int index = CardSet.highIndex(m);
+			if (next > 0) {
+				out[next++] = ' ';
+			}
+			out[next++] = LABELS[index * 2];
+			out[next++] = LABELS[index * 2 + 1];
+		}
+
+		return new String(out);
+	}
+
+	/**
+	 * Append the labels to a builder.
+	 * @return sb
+	 */
+	public static StringBuilder append(StringBuilder sb, long mask) {
+		boolean first = true;
+		for (long m = mask; m != CardSet.EMPTY; m &= ~Long.highestOneBit(m)) {
+			int index = CardSet.highIndex(m);
+			if (!first) {
+				sb.append(' ');
+			}
+			sb.append(LABELS[index * 2]).append(LABELS[index * 2 + 1]);
+			first = false;
+		}
+
+		return sb;
+	}
+
+	/**
+	 * Write the labels as ASCII at the buffer's position.
+	 * @return buffer
+	 */
+	public static ByteBuffer put(ByteBuffer buffer, long mask) {
+		boolean first = true;
+		for (long m = mask; m != CardSet.EMPTY; m &= ~Long.highestOneBit(m)) {
+			int index = CardSet.highIndex(m);
+			if (!first) {
+				buffer.put((byte) ' ');
+			}
+			buffer.put((byte) LABELS[index * 2]).put((byte) LABELS[index * 2 + 1]);
+			first = false;
+		}
+
+		return buffer;
+	}
+}
@@ -0,0 +1,290 @@
+package poker.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import poker.CardSet;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Reads cards written as rank and suit characters ("Td", either case)
+ * straight into a card mask (see CardSet), without regex, substrings
+ * or Card objects.
+ *
+ * Tens may also be written "10". Cards may be separated by spaces,
+ * tabs or commas, or not at all.
+ * Anything else, or the same card twice, is malformed. Results are
+ * a mask, or a negative error value holding the position of the first
+ * bad character (see isError(), errorPosition()), so nothing is
+ * allocated either way.
+ *
+ * parseLines() reads one hand per line from ASCII text, e.g. a mapped file.
+ */
+
+public final class CardParser {
+	// Mapped in windows this size (lines never span two windows).
+	public static final int WINDOW_SIZE = 1 << 26;
+
+	private static final byte NONE = -1;
+	private static final byte SEPARATOR = -2;
+	private static final byte TEN = 8;
+
+	// For finding a newline byte in a long.
+	private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	// Character -> rank (0 = twos) or suit (0 = clubs), NONE, or SEPARATOR.
+	private static final byte[] RANKS = new byte[128];
+	private static final byte[] SUITS = new byte[128];
+	static {
+		Arrays.fill(RANKS, NONE);
+		Arrays.fill(SUITS, NONE);
+
+		String ranks = "23456789TJQKA";
+		for (int r = 0; r < ranks.length(); r++) {
+			RANKS[ranks.charAt(r)] = (byte) r;
+			RANKS[Character.toLowerCase(ranks.charAt(r))] = (byte) r;
+		}
+
+		String suits = "cdhs";
+		for (int s = 0; s < suits.length(); s++) {
+			SUITS[suits.charAt(s)] = (byte) s;
+			SUITS[Character.toUpperCase(suits.charAt(s))] = (byte) s;
+		}
+
+		RANKS[' '] = SEPARATOR;
+		RANKS['\t'] = SEPARATOR;
+		RANKS[','] = SEPARATOR;
+		RANKS['\r'] = SEPARATOR;
+	}
+
+	private CardParser() {
+	}
+
+	/**
+	 * Parse a whole string.
+	 * @return card mask, or an error value
+	 */
+	public static long parse(CharSequence text) {
+		return parse(text, 0, text.length());
+	}
+
+	/**
+	 * Parse part of a string.
+	 * @param from First character
+	 * @param to Last character (exclusive)
+	 * @return card mask, or an error value with a position relative to text
+	 */
+	public static long parse(CharSequence text, int from, int to) {
+		long mask = CardSet.EMPTY;
+		int i = from;
+
+		while (i < to) {
+			char c = text.charAt(i);
+			int rank = c < 128 ? RANKS[c] : NONE;
+
+			if (rank == SEPARATOR) {
+				i++;
+				continue;
+			}
+
+			int start = i;
+			if (rank == NONE) {
+				// "10" for a ten
+				if (c != '1' || i + 1 >= to || text.charAt(i + 1) != '0') {
+					return error(i);
+				}
+
+				rank = TEN;
+				i++;
+			}
+
+			char s = i + 1 < to ? text.charAt(i + 1) : 0;
+			int suit = s < 128 ? SUITS[s] : NONE;
+			if (suit == NONE) {
+				return error(i + 1);
+			}
+
+			long card = 1L << (rank * 4 + suit);
+			if ((mask & card) != 0) {
+				return error(start);
+			}
+
+			mask |= card;
+			i += 2;
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Parse ASCII bytes, as parse(CharSequence, int, int).
+	 * @param from First byte (absolute)
+	 * @param to Last byte (exclusive)
+	 * @return card mask, or an error value with a position relative to
+	 *         from, i.e. the column when parsing a line
+	 */
+	public static long parse(ByteBuffer text, int from, int to) {
+		long mask = CardSet.EMPTY;
+		int i = from;
+
+		while (i < to) {
+			int c = text.get(i);
+			int rank = c >= 0 ? RANKS[c] : NONE;
+
+			if (rank == SEPARATOR) {
+				i++;
+				continue;
+			}
+
+			int start = i;
+			if (rank == NONE) {
+				// "10" for a ten
+				if (c != '1' || i + 1 >= to || text.get(i + 1) != '0') {
+					return error(i - from);
+				}
+
+				rank = TEN;
+				i++;
+			}
+
+			int s = i + 1 < to ? text.get(i + 1) : 0;
+			int suit = s >= 0 ? SUITS[s] : NONE;
+			if (suit == NONE) {
+				return error(i + 1 - from);
+			}
+
+			long card = 1L << (rank * 4 + suit);
+			if ((mask & card) != 0) {
+				return error(start - from);
+			}
+
+			mask |= card;
+			i += 2;
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Parse one hand per line of ASCII text, from the buffer's position.
+	 * Stops when masks is full, or before a last line with no newline
+	 * unless endOfInput; the position is left at the first line not read.
+	 * @param masks Filled with a mask or error value per line, error
+	 *        positions being columns in the line
+	 * @param endOfInput The buffer ends the text
+	 * @return Number of lines read
+	 */
+	public static int parseLines(ByteBuffer text, long[] masks, boolean endOfInput) {
+		int count = 0;
+		int start = text.position();
+		int limit = text.limit();
+
+		while (count < masks.length && start < limit) {
+			int end = lineEnd(text, start, limit);
+
+			if (end == limit && !endOfInput) {
+				break;
+			}
+
+			masks[count++] = parse(text, start, end);
+			start = Math.min(end + 1, limit);
+		}
+
+		text.position(start);
+		return count;
+	}
+
+	/**
+	 * Parse a file of one hand per line, mapping it in windows.
+	 * @param sink Called with a mask or error value per line, in order;
+	 *        error positions are columns in the line
+	 * @return Number of lines read
+	 */
+	public static long parseLines(Path file, LongConsumer sink) throws IOException {
+		return parseLines(file, WINDOW_SIZE, sink);
+	}
+
+	/**
+	 * As parseLines(Path, LongConsumer), mapping windows of a given size.
+	 * @param windowSize Bytes mapped at a time, at least the longest line
+	 */
+	public static long parseLines(Path file, int windowSize, LongConsumer sink) throws IOException {
+		long[] masks = new long[1024];
+		long lines = 0;
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long offset = 0;
+
+			while (offset < size) {
+				long length = Math.min(windowSize, size - offset);
+				boolean last = offset + length == size;
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+
+				int count;
+				while ((count = parseLines(window, masks, last)) > 0) {
+					for (int i = 0; i < count; i++) {
+						sink.accept(masks[i]);
+					}
+					lines += count;
+				}
+
+				if (window.position() == 0) {
+					throw new IOException("line longer than " + windowSize + " bytes at " + offset);
+				}
+
+				offset += window.position();
+			}
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Index of the next newline, or limit. Tests 8 bytes at a time.
+	 */
+	private static int lineEnd(ByteBuffer text, int from, int limit) {
+		int i = from;
+		boolean bigEndian = text.order() == ByteOrder.BIG_ENDIAN;
+
+		for (; i + 8 <= limit; i += 8) {
+			// first byte lowest, so a false match can only follow a real one
+			long x = text.getLong(i);
+			x = (bigEndian ? Long.reverseBytes(x) : x) ^ NEWLINES;
+			long found = (x - ONES) & ~x & HIGH_BITS;
+			if (found != 0) {
+				return i + (Long.numberOfTrailingZeros(found) >>> 3);
+			}
+		}
+
+		while (i < limit && text.get(i) != '\n') {
+			i++;
+		}
+
+		return i;
+	}
+
+	public static boolean isError(long result) {
+		return result < 0;
+	}
+
+	/**
+	 * Position of the bad character in an error value.
+	 */
+	public static int errorPosition(long result) {
+		return (int) (-1 - result);
+	}
+
+	private static long error(int position) {
+		return -1L - position;
+	}
+}
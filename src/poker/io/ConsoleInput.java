@@ -0,0 +1,32 @@
+package poker.io;
+
+import poker.Hand;
+import poker.player.Player;
+import poker.player.PlayerInput;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Human players at this console, see UserInput.
+ */
+
+public class ConsoleInput implements PlayerInput {
+	public static final ConsoleInput INSTANCE = new ConsoleInput();
+
+	private ConsoleInput() {
+	}
+
+	@Override
+	public Hand getPlayerHand(Player p, Hand last) {
+		return UserInput.getPlayerHand(p, last);
+	}
+
+	@Override
+	public void raiseInvalidHand(Player p, int errorType) {
+		UserInput.raiseInvalidHand(p, errorType);
+	}
+
+	@Override
+	public void postMessage(String format, Object ... args) {
+		UserInput.postMessage(format, args);
+	}
+}
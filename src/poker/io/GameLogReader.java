@@ -0,0 +1,154 @@
+package poker.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import poker.GameRecord;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Reads the games written by GameLogWriter, one record at a time into a
+ * reused GameRecord. No Game, Player or Hand objects are built.
+ */
+
+public class GameLogReader implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ReadableByteChannel channel;
+	private ByteBuffer buffer;
+	private boolean endOfInput;
+
+	/**
+	 * Read from a channel, checking the header.
+	 */
+	public GameLogReader(ReadableByteChannel in) throws IOException {
+		channel = in;
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer.flip();
+
+		if (!fill(GameLogWriter.MAGIC.length + 1)) {
+			throw new IOException("not a game log: too short");
+		}
+
+		for (byte b : GameLogWriter.MAGIC) {
+			if (buffer.get() != b) {
+				throw new IOException("not a game log");
+			}
+		}
+
+		byte version = buffer.get();
+		if (version != GameLogWriter.VERSION) {
+			throw new IOException("unsupported game log version " + version);
+		}
+	}
+
+	public static GameLogReader open(Path file) throws IOException {
+		return new GameLogReader(FileChannel.open(file, StandardOpenOption.READ));
+	}
+
+	/**
+	 * Read the next game.
+	 * @param game Record to fill
+	 * @return false at the end of the log
+	 */
+	public boolean next(GameRecord game) throws IOException {
+		// length is a varint of at most 5 bytes
+		fill(5);
+		if (!buffer.hasRemaining()) {
+			return false;
+		}
+
+		int length = getVarint(buffer);
+		if (!fill(length)) {
+			throw new IOException("game log truncated");
+		}
+
+		int end = buffer.position() + length;
+		decode(buffer, game);
+
+		if (buffer.position() != end) {
+			throw new IOException("corrupt game record");
+		}
+
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Decode one record (after its length).
+	 * Shared with the memory mapped reader.
+	 */
+	static void decode(ByteBuffer in, GameRecord game) {
+		int seats = in.get();
+		game.reset(seats);
+		for (int s = 0; s < seats; s++) {
+			int position = in.get();
+			game.setSeat(s, position, in.getLong());
+		}
+
+		int turns = getVarint(in);
+		for (int t = 0; t < turns; t++) {
+			int header = getVarint(in);
+			long mask = 0;
+
+			for (int c = header >>> 2; c > 0; c--) {
+				mask |= 1L << in.get();
+			}
+
+			game.addTurn(header & 3, mask);
+		}
+
+		int finishers = in.get();
+		for (int p = 0; p < finishers; p++) {
+			game.addFinisher(in.get());
+		}
+	}
+
+	static int getVarint(ByteBuffer in) {
+		int value = 0;
+		for (int shift = 0; ; shift += 7) {
+			byte b = in.get();
+			value |= (b & 0x7F) << shift;
+
+			if (b >= 0) {
+				return value;
+			}
+		}
+	}
+
+	/**
+	 * Make at least count bytes available, unless the input ends first.
+	 * @return true if they are available
+	 */
+	private boolean fill(int count) throws IOException {
+		if (buffer.remaining() >= count) {
+			return true;
+		}
+
+		if (buffer.capacity() < count) {
+			ByteBuffer bigger = ByteBuffer.allocateDirect(count);
+			bigger.put(buffer);
+			buffer = bigger;
+		} else {
+			buffer.compact();
+		}
+
+		while (buffer.position() < count && !endOfInput) {
+			if (channel.read(buffer) < 0) {
+				endOfInput = true;
+			}
+		}
+
+		buffer.flip();
+		return buffer.remaining() >= count;
+	}
+}
@@ -0,0 +1,203 @@
+package poker.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import poker.CardSet;
+import poker.GameRecord;
+import poker.HandEvaluator;
+import poker.Rules;
+import poker.enums.HandType;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Totals over recorded games:
+ *    places and score by player position, the same as GameResults
+ *    how often each HandType is played
+ *    how often the opener wins, by the type of the opening hand
+ *    turns and passes per game
+ * One instance per thread; merge() adds another's totals.
+ * Run from the command line to report on log files:
+ *    java -cp team-poker.jar poker.io.GameLogStats games.log ...
+ */
+
+public class GameLogStats {
+	private static final HandType[] TYPES = HandType.values();
+	private static final int HIGH_CARD = HandType.HIGH_CARD.ordinal();
+
+	private long games;
+	private long turns;
+	private long passes;
+	private final long[] plays = new long[TYPES.length];
+	private final long[] openings = new long[TYPES.length];
+	private final long[] openingWins = new long[TYPES.length];
+
+	// By position (1 - 4), then by place.
+	private final long[][] places = new long[Rules.MAX_PLAYERS + 1][Rules.MAX_PLAYERS];
+	private final long[] scores = new long[Rules.MAX_PLAYERS + 1];
+
+	/**
+	 * Totals for every game in the logs, computed in parallel.
+	 */
+	public static GameLogStats of(MappedGameLog log) {
+		return log.process(GameLogStats::new, GameLogStats::add, GameLogStats::merge);
+	}
+
+	/**
+	 * Add a game.
+	 */
+	public void add(GameRecord game) {
+		HandEvaluator evaluator = HandEvaluator.getDefault();
+		games++;
+		turns += game.getTurnCount();
+
+		for (int t = 0; t < game.getTurnCount(); t++) {
+			long mask = game.getTurnMask(t);
+			if (mask == CardSet.EMPTY) {
+				passes++;
+				continue;
+			}
+
+			// Most plays are single cards, skip evaluating those.
+			int size = Long.bitCount(mask);
+			int type = size == 1 ? HIGH_CARD : HandType.ofScore(evaluator.evaluate(mask), size).ordinal();
+			plays[type]++;
+
+			if (t == 0) {
+				openings[type]++;
+				if (game.getFinishCount() > 0 && game.getFinisher(0) == game.getTurnSeat(0)) {
+					openingWins[type]++;
+				}
+			}
+		}
+
+		// Same scoring as GameResults: 4 for first, 3 for second...
+		for (int p = 0; p < game.getFinishCount(); p++) {
+			int position = game.getPosition(game.getFinisher(p));
+			places[position][p]++;
+			scores[position] += 4 - p;
+		}
+	}
+
+	/**
+	 * Add another set of totals.
+	 * @return this
+	 */
+	public GameLogStats merge(GameLogStats other) {
+		games += other.games;
+		turns += other.turns;
+		passes += other.passes;
+
+		for (int t = 0; t < TYPES.length; t++) {
+			plays[t] += other.plays[t];
+			openings[t] += other.openings[t];
+			openingWins[t] += other.openingWins[t];
+		}
+
+		for (int pos = 0; pos < places.length; pos++) {
+			scores[pos] += other.scores[pos];
+			for (int p = 0; p < Rules.MAX_PLAYERS; p++) {
+				places[pos][p] += other.places[pos][p];
+			}
+		}
+
+		return this;
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	public double getAverageTurns() {
+		return games == 0 ? 0 : (double) turns / games;
+	}
+
+	public double getAveragePasses() {
+		return games == 0 ? 0 : (double) passes / games;
+	}
+
+	/**
+	 * Number of hands of a type played.
+	 */
+	public long getPlays(HandType type) {
+		return plays[type.ordinal()];
+	}
+
+	/**
+	 * Number of games opened with a type.
+	 */
+	public long getOpenings(HandType type) {
+		return openings[type.ordinal()];
+	}
+
+	/**
+	 * Share of games opened with a type that the opener won.
+	 */
+	public double getOpeningWinRate(HandType type) {
+		long count = openings[type.ordinal()];
+		return count == 0 ? 0 : (double) openingWins[type.ordinal()] / count;
+	}
+
+	/**
+	 * Games a position finished in a place (0 = first).
+	 */
+	public long getPlaces(int position, int place) {
+		return places[position][place];
+	}
+
+	/**
+	 * Score of a position, as GameResults.getScore().
+	 */
+	public long getScore(int position) {
+		return scores[position];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%d games, %.1f turns and %.1f passes per game%n", 
+			games, getAverageTurns(), getAveragePasses()));
+
+		sb.append(String.format("%nPosition   Score      1st      2nd      3rd      4th%n"));
+		for (int pos = 1; pos < places.length; pos++) {
+			sb.append(String.format("%8d %7d", pos, scores[pos]));
+			for (int p = 0; p < Rules.MAX_PLAYERS; p++) {
+				sb.append(String.format(" %8d", places[pos][p]));
+			}
+			sb.append(String.format("%n"));
+		}
+
+		sb.append(String.format("%nHand type              Played   Opened  Opener wins%n"));
+		for (HandType type : TYPES) {
+			if (type != HandType.INVALID) {
+				sb.append(String.format("%-20s %8d %8d %11.1f%%%n", type, getPlays(type), 
+					getOpenings(type), getOpeningWinRate(type) * 100));
+			}
+		}
+
+		return sb.toString();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("usage: GameLogStats <game log> ...");
+			return;
+		}
+
+		Path[] files = new Path[args.length];
+		for (int i = 0; i < args.length; i++) {
+			files[i] = Paths.get(args[i]);
+		}
+
+		long start = System.nanoTime();
+		try (MappedGameLog log = new MappedGameLog(files)) {
+			GameLogStats stats = of(log);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			System.out.print(stats);
+			System.out.println(String.format("%nRead %d games in %.2f s (%.0f games/sec)", 
+				stats.getGames(), seconds, stats.getGames() / seconds));
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package poker.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import poker.GameRecord;
+import poker.GameRecorder;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Writes games to a compact binary log, read back by GameLogReader.
+ *
+ * File: "PKLG", a version byte, then one record per game:
+ *    varint  length of the rest of the record
+ *    byte    seat count
+ *    per seat: byte player position, long (8 bytes) dealt card mask
+ *    varint  turn count
+ *    per turn: varint seat | cards played << 2, then the card indices
+ *              (one byte each, 0 cards for a pass)
+ *    byte    finisher count, then per finisher: byte seat, in finishing order
+ * A 4 player game is about 170 bytes. Records are encoded into a buffer
+ * and written to the channel in large blocks. Safe to share between
+ * threads; records are written whole.
+ */
+
+public class GameLogWriter implements GameRecorder, Closeable {
+	static final byte[] MAGIC = { 'P', 'K', 'L', 'G' };
+	static final byte VERSION = 1;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+	private ByteBuffer scratch;
+	private long games;
+	private long bytes;
+
+	/**
+	 * Write to a channel, the header first.
+	 */
+	public GameLogWriter(WritableByteChannel out) throws IOException {
+		channel = out;
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		scratch = ByteBuffer.allocate(1024);
+
+		buffer.put(MAGIC).put(VERSION);
+		bytes = MAGIC.length + 1;
+	}
+
+	/**
+	 * Create (or replace) a log file.
+	 */
+	public static GameLogWriter open(Path file) throws IOException {
+		return new GameLogWriter(FileChannel.open(file, StandardOpenOption.CREATE, 
+			StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+	}
+
+	/**
+	 * Append a game. Write errors are thrown as UncheckedIOException
+	 * since games call this from their turn loop.
+	 */
+	@Override
+	public synchronized void record(GameRecord game) {
+		try {
+			encode(game);
+
+			int length = scratch.remaining();
+			if (buffer.remaining() < length + 5) {
+				flushBuffer();
+			}
+
+			// Larger than the whole buffer, write it directly.
+			if (buffer.remaining() < length + 5) {
+				putVarint(buffer, length);
+				flushBuffer();
+				writeFully(scratch);
+			} else {
+				putVarint(buffer, length);
+				buffer.put(scratch);
+			}
+
+			games++;
+			bytes += varintSize(length) + length;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Push buffered records to the channel.
+	 */
+	public synchronized void flush() throws IOException {
+		flushBuffer();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			flushBuffer();
+		} finally {
+			channel.close();
+		}
+	}
+
+	public synchronized long getGamesWritten() {
+		return games;
+	}
+
+	/**
+	 * Bytes written, header included.
+	 */
+	public synchronized long getBytesWritten() {
+		return bytes;
+	}
+
+	/**
+	 * Encode a record (without its length) into scratch, ready to read.
+	 */
+	private void encode(GameRecord game) {
+		// seats + turns (at most 6 bytes each) + finishers
+		int needed = 1 + game.getSeatCount() * 10 + 5 + game.getTurnCount() * 6 + 1;
+		if (scratch.capacity() < needed) {
+			scratch = ByteBuffer.allocate(Math.max(needed, scratch.capacity() * 2));
+		}
+
+		scratch.clear();
+		scratch.put((byte) game.getSeatCount());
+		for (int s = 0; s < game.getSeatCount(); s++) {
+			scratch.put((byte) game.getPosition(s));
+			scratch.putLong(game.getDeal(s));
+		}
+
+		putVarint(scratch, game.getTurnCount());
+		for (int t = 0; t < game.getTurnCount(); t++) {
+			long mask = game.getTurnMask(t);
+			putVarint(scratch, game.getTurnSeat(t) | (Long.bitCount(mask) << 2));
+
+			for (long m = mask; m != 0; m &= m - 1) {
+				scratch.put((byte) Long.numberOfTrailingZeros(m));
+			}
+		}
+
+		scratch.put((byte) game.getFinishCount());
+		for (int p = 0; p < game.getFinishCount(); p++) {
+			scratch.put((byte) game.getFinisher(p));
+		}
+
+		scratch.flip();
+	}
+
+	private void flushBuffer() throws IOException {
+		buffer.flip();
+		writeFully(buffer);
+		buffer.clear();
+	}
+
+	private void writeFully(ByteBuffer src) throws IOException {
+		while (src.hasRemaining()) {
+			channel.write(src);
+		}
+	}
+
+	/**
+	 * Unsigned LEB128.
+	 */
+	static void putVarint(ByteBuffer out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		out.put((byte) value);
+	}
+
+	static int varintSize(int value) {
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			value >>>= 7;
+			size++;
+		}
+
+		return size;
+	}
+}
@@ -0,0 +1,200 @@
+package poker.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+import poker.GameRecord;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Game logs (see GameLogWriter) read through memory mapping, in parallel.
+ *
+ * Opening a log walks the record lengths only, cutting the files into
+ * chunks of whole records of about CHUNK_SIZE bytes. process() maps each
+ * chunk and decodes it on the common fork-join pool, one GameRecord and
+ * one result per chunk, then combines the results. Files larger than
+ * 2 GB are fine since no single mapping spans more than a chunk.
+ */
+
+public class MappedGameLog implements Closeable {
+	public static final long CHUNK_SIZE = 32L << 20;
+
+	// Largest window used while walking the record lengths.
+	private static final long SCAN_WINDOW = 1L << 30;
+
+	private final List<FileChannel> channels = new ArrayList<FileChannel>();
+	private final List<Chunk> chunks = new ArrayList<Chunk>();
+	private long games;
+
+	/**
+	 * Open one or more logs.
+	 */
+	public MappedGameLog(Path... files) throws IOException {
+		this(CHUNK_SIZE, files);
+	}
+
+	/**
+	 * Open one or more logs, cutting them into chunks of about chunkSize bytes.
+	 */
+	public MappedGameLog(long chunkSize, Path... files) throws IOException {
+		try {
+			for (Path file : files) {
+				FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+				channels.add(channel);
+				split(file, channel, chunkSize);
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Number of games in the logs.
+	 */
+	public long getGameCount() {
+		return games;
+	}
+
+	/**
+	 * Number of chunks processed in parallel.
+	 */
+	public int getChunkCount() {
+		return chunks.size();
+	}
+
+	/**
+	 * Run over every game, in parallel.
+	 * @param create New result, one per chunk
+	 * @param add Add a game to a result (the record is reused)
+	 * @param combine Merge two results
+	 * @return combined result
+	 */
+	public <T> T process(Supplier<T> create, BiConsumer<T, GameRecord> add, BinaryOperator<T> combine) {
+		return chunks.parallelStream().map(chunk -> {
+			T result = create.get();
+			GameRecord record = new GameRecord();
+
+			try {
+				MappedByteBuffer buffer = chunk.channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.length);
+				while (buffer.hasRemaining()) {
+					int length = GameLogReader.getVarint(buffer);
+					int end = buffer.position() + length;
+					GameLogReader.decode(buffer, record);
+
+					if (buffer.position() != end) {
+						throw new IOException("corrupt game record in " + chunk.file);
+					}
+
+					add.accept(result, record);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			return result;
+		}).reduce(combine).orElseGet(create);
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOException error = null;
+		for (FileChannel channel : channels) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				error = e;
+			}
+		}
+
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Check the header and cut a file into chunks of whole records.
+	 */
+	private void split(Path file, FileChannel channel, long chunkSize) throws IOException {
+		long size = channel.size();
+		int headerSize = GameLogWriter.MAGIC.length + 1;
+
+		ByteBuffer header = ByteBuffer.allocate(headerSize);
+		while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+		}
+		header.flip();
+
+		if (header.remaining() < headerSize) {
+			throw new IOException(file + ": not a game log");
+		}
+		for (byte b : GameLogWriter.MAGIC) {
+			if (header.get() != b) {
+				throw new IOException(file + ": not a game log");
+			}
+		}
+		if (header.get() != GameLogWriter.VERSION) {
+			throw new IOException(file + ": unsupported game log version");
+		}
+
+		long chunkStart = headerSize;
+		long pos = headerSize;
+		long windowStart = 0;
+		MappedByteBuffer window = null;
+
+		while (pos < size) {
+			// Re-map when the next length might run off the window.
+			if (window == null || pos + 5 > windowStart + window.limit()) {
+				windowStart = pos;
+				window = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(SCAN_WINDOW, size - pos));
+			}
+
+			window.position((int) (pos - windowStart));
+			int length = GameLogReader.getVarint(window);
+			long next = windowStart + window.position() + length;
+
+			if (next > size) {
+				throw new IOException(file + ": game log truncated");
+			}
+
+			games++;
+			pos = next;
+
+			if (pos - chunkStart >= chunkSize) {
+				chunks.add(new Chunk(file, channel, chunkStart, pos - chunkStart));
+				chunkStart = pos;
+			}
+		}
+
+		if (pos > chunkStart) {
+			chunks.add(new Chunk(file, channel, chunkStart, pos - chunkStart));
+		}
+	}
+
+	/**
+	 * Byte range of whole records in one file.
+	 */
+	private static final class Chunk {
+		final Path file;
+		final FileChannel channel;
+		final long start;
+		final long length;
+
+		Chunk(Path chunkFile, FileChannel chunkChannel, long chunkStart, long chunkLength) {
+			file = chunkFile;
+			channel = chunkChannel;
+			start = chunkStart;
+			length = chunkLength;
+		}
+	}
+}
@@ -2,9 +2,7 @@ package poker.io;
 
 import java.util.List;
 import java.util.Scanner;
-import java.util.TreeSet;
 
-import poker.Card;
 import poker.GameResults;
 import poker.Hand;
 import poker.Rules;
@@ -89,7 +87,7 @@ public class UserInput {
 		PlayerAIBase ai = null;
 		
 		do {
-			System.out.print(String.format("Player %d Bot AI [Matthew, Random]: ", next));
+			System.out.print(String.format("Player %d Bot AI [Matthew, Random, MonteCarlo]: ", next));
 			String type = in.nextLine();
 			
 			switch (type.trim().toUpperCase()) {
@@ -101,6 +99,10 @@ public class UserInput {
 					ai = new RandomBot();
 					break;
 					
+				case "MONTECARLO":
+					ai = new MonteCarloBot();
+					break;
+					
 				default:
 					System.out.println("Invalid bot name!");
 					break;
@@ -143,9 +145,9 @@ public class UserInput {
 				return null;
 			}
 			
-			TreeSet<Card> parsedCards = Utils.getCardsFromString(cardStr);
-			if (parsedCards == null) {
-				System.out.println("Invalid hand.");
+			long parsedCards = CardParser.parse(cardStr);
+			if (CardParser.isError(parsedCards)) {
+				System.out.println(String.format("Invalid hand: bad card at column %d.", CardParser.errorPosition(parsedCards) + 1));
 			} else {
 				h = new Hand(parsedCards);
 			}
@@ -159,26 +161,32 @@ public class UserInput {
 	 * Invalid hand 
 	 */
 	public static void raiseInvalidHand(Player p, int errorType) {
+		String message = getInvalidHandMessage(errorType);
+		if (message != null) {
+			System.out.println(message);
+		}
+	}
+	
+	/**
+	 * Explanation of a Rules.checkHand() error, null if unknown.
+	 */
+	public static String getInvalidHandMessage(int errorType) {
 		switch (errorType) {
 			case Rules.HAND_INVALID:
-				System.out.println("That's not a valid hand!");
-				break;
+				return "That's not a valid hand!";
 				
 			case Rules.HAND_INVALID_PLAYER_CARDS:
-				System.out.println("You must play cards that you hold!");
-				break;
+				return "You must play cards that you hold!";
 				
 			case Rules.HAND_INVALID_LOW_SCORE:
-				System.out.println("You must play a hand that beats the last hand!");
-				break;
+				return "You must play a hand that beats the last hand!";
 				
 			case Rules.HAND_INVALID_STARTING_CARD:
-				System.out.println("You must open with a hand that uses your lowest card!");
-				break;
+				return "You must open with a hand that uses your lowest card!";
 				
 			default:
 				// wat?
-				break;
+				return null;
 		}
 	}
 	
@@ -0,0 +1,160 @@
+package poker.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * One client of a GameServer. Reading and writing happen on the server's
+ * selector thread; send() may be called from any thread and queues the
+ * line for it.
+ */
+
+class Connection {
+	static final int MAX_LINE = 256;
+
+	// A client this far behind is not reading; it is dropped.
+	static final int MAX_QUEUED_BYTES = 1 << 20;
+
+	private final GameServer server;
+	private final SocketChannel channel;
+	private final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+	private final ConcurrentLinkedQueue<ByteBuffer> out = new ConcurrentLinkedQueue<ByteBuffer>();
+	private final AtomicInteger queuedBytes = new AtomicInteger();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	private SelectionKey key;
+	private volatile boolean closed;
+
+	// Set when the client joins, and the seat while it plays at a table.
+	String name;
+	volatile RemoteSeat seat;
+
+	Connection(GameServer owner, SocketChannel socket) {
+		server = owner;
+		channel = socket;
+	}
+
+	void register(SelectionKey selectionKey) {
+		key = selectionKey;
+	}
+
+	boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Queue a line to the client (any thread).
+	 */
+	void send(String line) {
+		if (closed) {
+			return;
+		}
+
+		byte[] bytes = (line + "\n").getBytes(StandardCharsets.US_ASCII);
+		if (queuedBytes.addAndGet(bytes.length) > MAX_QUEUED_BYTES) {
+			server.execute(this::close);
+			return;
+		}
+
+		out.add(ByteBuffer.wrap(bytes));
+		if (flushScheduled.compareAndSet(false, true)) {
+			server.execute(this::flush);
+		}
+	}
+
+	/**
+	 * Read what has arrived and pass each whole line to the server
+	 * (selector thread).
+	 */
+	void read() throws IOException {
+		if (channel.read(in) < 0) {
+			close();
+			return;
+		}
+
+		int start = 0;
+		for (int i = 0; i < in.position(); i++) {
+			if (in.get(i) == '\n') {
+				int end = (i > start && in.get(i - 1) == '\r') ? i - 1 : i;
+				server.handle(this, new String(in.array(), start, end - start, StandardCharsets.US_ASCII));
+				start = i + 1;
+
+				if (closed) {
+					return;
+				}
+			}
+		}
+
+		if (start == 0 && !in.hasRemaining()) {
+			send("ERROR line longer than " + MAX_LINE + " characters");
+			flush();
+			close();
+			return;
+		}
+
+		// keep the partial line
+		in.limit(in.position()).position(start);
+		in.compact();
+	}
+
+	/**
+	 * Write queued lines until done or the socket is full (selector thread).
+	 */
+	void flush() {
+		try {
+			while (!closed) {
+				ByteBuffer next;
+				while ((next = out.peek()) != null) {
+					channel.write(next);
+					if (next.hasRemaining()) {
+						// wait for the socket to drain
+						key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+						return;
+					}
+
+					out.poll();
+					queuedBytes.addAndGet(-next.capacity());
+				}
+
+				key.interestOps(SelectionKey.OP_READ);
+				flushScheduled.set(false);
+
+				// a line queued after the last poll() above did not schedule a flush
+				if (out.isEmpty() || !flushScheduled.compareAndSet(false, true)) {
+					return;
+				}
+			}
+		} catch (IOException e) {
+			close();
+		}
+	}
+
+	/**
+	 * Close the socket and leave the lobby or table (selector thread).
+	 */
+	void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		if (key != null) {
+			key.cancel();
+		}
+
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// closing anyway
+		}
+
+		out.clear();
+		server.disconnected(this);
+	}
+}
@@ -0,0 +1,434 @@
+package poker.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import poker.Logger;
+import poker.Rules;
+import poker.Table;
+import poker.TableManager;
+import poker.player.Player;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.PlayerAIBase;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Network front end: clients play at tables over TCP.
+ *
+ * One selector thread does all the socket I/O without blocking. Clients
+ * wait in a lobby until there are enough to fill a table's remote seats
+ * (the rest are bots); each table then plays a Game of its own on a
+ * TableManager thread, so tables share no state.
+ *
+ * Protocol, one ASCII line per message, cards as in CardParser:
+ *    client: JOIN <name>        wait for a table (name: 1 - 20 letters, digits, _ or -)
+ *            PLAY <cards>       on your turn
+ *            PASS               on your turn
+ *            QUIT
+ *    server: JOINED <name>
+ *            SEATED <table> <position> <players>
+ *            HAND <cards>       your cards, before each TURN
+ *            TURN [<cards>]     your move, and the hand to beat if any
+ *            INVALID <code> <reason>
+ *                               the hand was rejected, TURN follows
+ *            TIMEOUT            too slow, the seat passed or led its lowest card
+ *            MSG <text>         the table's game messages
+ *            RESULT <place> <players>
+ *                               game over; JOIN to play again
+ *            ERROR <reason>     bad command, the connection stays open
+ *
+ * Usage: GameServer <port> [remote seats] [bot seats]
+ */
+
+public class GameServer implements Closeable {
+	private final int remoteSeats;
+	private int botSeats;
+	private Supplier<PlayerAIBase> botFactory = MatthewBot::new;
+	private long moveTimeout;
+
+	private Selector selector;
+	private ServerSocketChannel acceptor;
+	private Thread selectorThread;
+	private final TableManager tableManager = new TableManager();
+	private volatile boolean running;
+
+	// Work for the selector thread, queued by other threads.
+	private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+	// Selector thread only.
+	private final ArrayDeque<Connection> lobby = new ArrayDeque<Connection>();
+	private final ArrayList<Connection> connections = new ArrayList<Connection>();
+
+	private final AtomicInteger connectionCount = new AtomicInteger();
+
+	/**
+	 * Create a server for tables with a number of network players.
+	 * @param remote Network players per table
+	 */
+	public GameServer(int remote) {
+		if (remote < 1 || remote > Rules.MAX_PLAYERS) {
+			throw new IllegalArgumentException(String.format("1 - %d remote seats", Rules.MAX_PLAYERS));
+		}
+
+		remoteSeats = remote;
+	}
+
+	/**
+	 * Fill the rest of each table with bots.
+	 * @param count Bots per table
+	 * @param factory Creates a bot for each seat
+	 */
+	public void setBots(int count, Supplier<PlayerAIBase> factory) {
+		if (count < 0 || remoteSeats + count > Rules.MAX_PLAYERS) {
+			throw new IllegalArgumentException(String.format("Max %d players", Rules.MAX_PLAYERS));
+		}
+
+		botSeats = count;
+		botFactory = factory;
+	}
+
+	/**
+	 * Set the factory used to create table threads.
+	 * On JVMs with virtual threads, pass Thread.ofVirtual().factory().
+	 */
+	public void setThreadFactory(ThreadFactory factory) {
+		tableManager.setThreadFactory(factory);
+	}
+
+	/**
+	 * Limit each network player's move; late players pass or lead
+	 * their lowest card.
+	 * @param millis Time allowed per move, 0 for none
+	 */
+	public void setMoveTimeout(long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("move timeout must not be negative");
+		}
+
+		moveTimeout = millis;
+	}
+
+	/**
+	 * Listen for clients.
+	 * @param address Address to bind, port 0 for any free port
+	 */
+	public void start(SocketAddress address) throws IOException {
+		if (remoteSeats + botSeats < 2) {
+			throw new IllegalStateException("a table needs at least 2 players");
+		}
+
+		if (running) {
+			throw new IllegalStateException("server already started");
+		}
+
+		selector = Selector.open();
+		acceptor = ServerSocketChannel.open();
+		acceptor.bind(address);
+		acceptor.configureBlocking(false);
+		acceptor.register(selector, SelectionKey.OP_ACCEPT);
+
+		running = true;
+		selectorThread = new Thread(this::select, "poker-server");
+		selectorThread.start();
+	}
+
+	/**
+	 * The bound port.
+	 */
+	public int getPort() {
+		return acceptor.socket().getLocalPort();
+	}
+
+	/**
+	 * The tables, for lifecycle and metrics (see TableManager).
+	 */
+	public TableManager getTableManager() {
+		return tableManager;
+	}
+
+	/**
+	 * Clients connected now.
+	 */
+	public int getConnectionCount() {
+		return connectionCount.get();
+	}
+
+	/**
+	 * Disconnect everyone and stop. Tables still playing are interrupted,
+	 * and finish quickly with their network seats passing; the table
+	 * threads stop with TableManager.shutdown().
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!running) {
+			return;
+		}
+
+		running = false;
+		selector.wakeup();
+
+		try {
+			selectorThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		tableManager.shutdown();
+	}
+
+	/**
+	 * Run a task on the selector thread (any thread).
+	 */
+	void execute(Runnable task) {
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	/**
+	 * The selector thread.
+	 */
+	private void select() {
+		try {
+			while (running) {
+				selector.select();
+
+				Runnable task;
+				while ((task = tasks.poll()) != null) {
+					task.run();
+				}
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+
+					if (!key.isValid()) {
+						continue;
+					}
+
+					if (key.isAcceptable()) {
+						accept();
+						continue;
+					}
+
+					Connection c = (Connection) key.attachment();
+					try {
+						if (key.isWritable()) {
+							c.flush();
+						}
+
+						if (key.isValid() && key.isReadable()) {
+							c.read();
+						}
+					} catch (IOException e) {
+						c.close();
+					}
+				}
+			}
+		} catch (IOException e) {
+			Logger.error("server stopped: %s", e);
+		} finally {
+			for (Connection c : new ArrayList<Connection>(connections)) {
+				c.close();
+			}
+
+			try {
+				acceptor.close();
+				selector.close();
+			} catch (IOException e) {
+				// stopping anyway
+			}
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel socket;
+		while ((socket = acceptor.accept()) != null) {
+			socket.configureBlocking(false);
+			socket.socket().setTcpNoDelay(true);
+
+			Connection c = new Connection(this, socket);
+			c.register(socket.register(selector, SelectionKey.OP_READ, c));
+			connections.add(c);
+			connectionCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * A line from a client (selector thread).
+	 */
+	void handle(Connection c, String line) {
+		int space = line.indexOf(' ');
+		String command = (space < 0 ? line : line.substring(0, space)).toUpperCase();
+
+		switch (command) {
+			case "JOIN":
+				join(c, space < 0 ? "" : line.substring(space + 1).trim());
+				break;
+
+			case "PLAY":
+			case "PASS":
+				RemoteSeat seat = c.seat;
+				if (seat == null || !seat.offer(line)) {
+					c.send("ERROR not your turn");
+				}
+				break;
+
+			case "QUIT":
+				c.close();
+				break;
+
+			default:
+				c.send("ERROR unknown command");
+				break;
+		}
+	}
+
+	private void join(Connection c, String name) {
+		if (c.seat != null || lobby.contains(c)) {
+			c.send("ERROR already joined");
+			return;
+		}
+
+		if (!isValidName(name)) {
+			c.send("ERROR bad name");
+			return;
+		}
+
+		c.name = name;
+		lobby.add(c);
+		c.send("JOINED " + name);
+
+		if (lobby.size() >= remoteSeats) {
+			ArrayList<Connection> seated = new ArrayList<Connection>(remoteSeats);
+			for (int i = 0; i < remoteSeats; i++) {
+				seated.add(lobby.poll());
+			}
+
+			startTable(seated);
+		}
+	}
+
+	private static boolean isValidName(String name) {
+		if (name.isEmpty() || name.length() > 20) {
+			return false;
+		}
+
+		for (int i = 0; i < name.length(); i++) {
+			char ch = name.charAt(i);
+			if (!(ch < 128 && (Character.isLetterOrDigit(ch) || ch == '_' || ch == '-'))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Seat clients and bots at a new table, which starts on its own
+	 * thread once full (selector thread).
+	 */
+	private void startTable(ArrayList<Connection> seated) {
+		Table table = tableManager.createTable(remoteSeats + botSeats);
+		StringBuilder names = new StringBuilder();
+
+		for (Connection c : seated) {
+			names.append(names.length() == 0 ? "" : " ").append(c.name);
+		}
+
+		for (int i = 0; i < botSeats; i++) {
+			names.append(" Bot").append(i + 1);
+		}
+
+		for (int i = 0; i < seated.size(); i++) {
+			seated.get(i).send(String.format("SEATED %d %d %s", table.getId(), i + 1, names));
+		}
+
+		table.setFinishListener(t -> finishTable(t, seated));
+
+		try {
+			for (Connection c : seated) {
+				RemoteSeat seat = new RemoteSeat(c, moveTimeout);
+				c.seat = seat;
+				table.join(c.name, seat);
+			}
+
+			for (int i = 0; i < botSeats; i++) {
+				table.addBot("Bot" + (i + 1), botFactory.get());
+			}
+		} catch (IllegalStateException e) {
+			// stopping
+			table.cancel();
+		}
+	}
+
+	/**
+	 * Send the results and free the clients (table thread).
+	 */
+	private void finishTable(Table table, ArrayList<Connection> seated) {
+		// free the clients to join again before they hear the result
+		for (Connection c : seated) {
+			c.seat = null;
+		}
+
+		ArrayList<Player> ret = table.getResults();
+		if (ret == null) {
+			if (!table.isCancelled()) {
+				for (Connection c : seated) {
+					c.send("ERROR table failed");
+				}
+			}
+			return;
+		}
+
+		for (int place = 0; place < ret.size(); place++) {
+			Player p = ret.get(place);
+			if (!p.isBot()) {
+				seated.get(p.getPosition() - 1).send(String.format("RESULT %d %d", place + 1, ret.size()));
+			}
+		}
+	}
+
+	/**
+	 * A client has gone (selector thread).
+	 */
+	void disconnected(Connection c) {
+		connections.remove(c);
+		connectionCount.decrementAndGet();
+		lobby.remove(c);
+
+		RemoteSeat seat = c.seat;
+		if (seat != null) {
+			seat.disconnect();
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("usage: GameServer <port> [remote seats] [bot seats]");
+			return;
+		}
+
+		int remote = args.length > 1 ? Integer.parseInt(args[1]) : Rules.MAX_PLAYERS;
+		GameServer server = new GameServer(remote);
+		server.setBots(args.length > 2 ? Integer.parseInt(args[2]) : 0, MatthewBot::new);
+		server.setMoveTimeout(Long.getLong("poker.moveDeadline", 0));
+		server.start(new InetSocketAddress(Integer.parseInt(args[0])));
+
+		System.out.println(String.format("Listening on port %d, %d remote and %d bot seats per table",
+				server.getPort(), remote, server.botSeats));
+	}
+}
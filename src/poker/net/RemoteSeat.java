@@ -0,0 +1,125 @@
+package poker.net;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import poker.Hand;
+import poker.Rules;
+import poker.io.CardFormatter;
+import poker.io.CardParser;
+import poker.io.UserInput;
+import poker.player.Player;
+import poker.player.PlayerInput;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * A human player's seat played by a network client.
+ * The game's thread sends the client its cards and waits for a PLAY or
+ * PASS line, which the selector thread hands over through a queue.
+ * Once the client disconnects, or takes longer than the move timeout,
+ * the seat plays Rules.defaultHand() so the table carries on.
+ */
+
+class RemoteSeat implements PlayerInput {
+	// Queued when the client disconnects.
+	private static final String GONE = "";
+
+	private final Connection connection;
+	private final long moveTimeout;
+	private final BlockingQueue<String> moves = new LinkedBlockingQueue<String>();
+	private volatile boolean waiting;
+	private volatile boolean gone;
+
+	/**
+	 * @param client Connection to the player
+	 * @param timeoutMillis Time allowed per move, 0 for none
+	 */
+	RemoteSeat(Connection client, long timeoutMillis) {
+		connection = client;
+		moveTimeout = timeoutMillis;
+	}
+
+	/**
+	 * A PLAY or PASS line from the client (selector thread).
+	 * @return false if it is not the player's turn
+	 */
+	boolean offer(String line) {
+		if (!waiting) {
+			return false;
+		}
+
+		moves.add(line);
+		return true;
+	}
+
+	/**
+	 * The client has gone (selector thread).
+	 */
+	void disconnect() {
+		gone = true;
+		moves.add(GONE);
+	}
+
+	@Override
+	public Hand getPlayerHand(Player p, Hand last) {
+		// drop anything sent too late for the last turn
+		moves.clear();
+
+		// checked after clear(): a disconnect before this point may have had
+		// its GONE cleared, one after it leaves GONE in the queue
+		if (gone) {
+			return Rules.defaultHand(p.getCardMask(), last);
+		}
+
+		waiting = true;
+		connection.send("HAND " + CardFormatter.format(p.getCardMask()));
+		connection.send(last == null ? "TURN" : "TURN " + CardFormatter.format(last.getMask()));
+
+		try {
+			while (true) {
+				String line = moveTimeout > 0 ? moves.poll(moveTimeout, TimeUnit.MILLISECONDS) : moves.take();
+
+				if (line == null) {
+					connection.send("TIMEOUT");
+					return Rules.defaultHand(p.getCardMask(), last);
+				}
+
+				if (line == GONE) {
+					return Rules.defaultHand(p.getCardMask(), last);
+				}
+
+				if (line.equalsIgnoreCase("PASS")) {
+					return null;
+				}
+
+				// PLAY <cards>
+				long cards = CardParser.parse(line, 4, line.length());
+				if (CardParser.isError(cards)) {
+					connection.send("ERROR bad card at column " + (CardParser.errorPosition(cards) + 1));
+				} else if (cards == 0) {
+					connection.send("ERROR no cards");
+				} else {
+					return new Hand(cards);
+				}
+			}
+		} catch (InterruptedException e) {
+			// the server is stopping
+			Thread.currentThread().interrupt();
+			return Rules.defaultHand(p.getCardMask(), last);
+		} finally {
+			waiting = false;
+		}
+	}
+
+	@Override
+	public void raiseInvalidHand(Player p, int errorType) {
+		String message = UserInput.getInvalidHandMessage(errorType);
+		connection.send("INVALID " + errorType + (message == null ? "" : " " + message));
+	}
+
+	@Override
+	public void postMessage(String format, Object ... args) {
+		connection.send("MSG " + String.format(format, args).trim().replace('\n', ' '));
+	}
+}
@@ -0,0 +1,14 @@
+package poker.player;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Receives a game's messages: a human player's input, or an observer
+ * that never plays. Called from the thread running the game.
+ */
+
+public interface GameListener {
+	/**
+	 * Game message for the listener.
+	 */
+	public void postMessage(String format, Object ... args);
+}
@@ -2,10 +2,20 @@ package poker.player;
 
 import java.util.ArrayList;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.security.InvalidParameterException;
 import poker.Card;
+import poker.CardSet;
 import poker.Hand;
-import poker.io.UserInput;
+import poker.LatencyHistogram;
+import poker.Metrics;
+import poker.Rules;
+import poker.io.ConsoleInput;
 import poker.player.bots.PlayerAIBase;
 
 /**
@@ -18,8 +28,15 @@ public class Player implements Comparable<Player> {
 	private int type;
 	private String name;
 	private int position;
-	private TreeSet<Card> cards;
+	private CardSet cards = new CardSet();
+	private TreeSet<Card> cardView;
 	private PlayerAIBase ai;
+	private PlayerInput input;
+	private LatencyHistogram latency;
+	private volatile boolean thinking;
+	private int timeouts;
+	private final int[] opponentCards = new int[Rules.MAX_PLAYERS - 1];
+	private int opponentCount = -1;
 	
 	public static final int HUMAN = 1;
 	public static final int BOT = 2;
@@ -38,6 +55,19 @@ public class Player implements Comparable<Player> {
 	public Player(int playerType, int pos, String playerName) {
 		this(playerType, pos, playerName, null);
 	}
+	
+	/**
+	 * Constructor for a human playing through an input other than the console.
+	 */
+	public Player(int pos, String playerName, PlayerInput playerInput) {
+		this(HUMAN, pos, playerName, null);
+		
+		if (playerInput == null) {
+			throw new InvalidParameterException("human player requires input");
+		}
+		
+		input = playerInput;
+	}
 
 	/**
 	 * Constructor with AI engine
@@ -54,6 +84,8 @@ public class Player implements Comparable<Player> {
 			}
 			
 			bot.setPlayerName(playerName);
+		} else {
+			input = ConsoleInput.INSTANCE;
 		}
 	}
 	
@@ -72,6 +104,13 @@ public class Player implements Comparable<Player> {
 		return position;
 	}
 	
+	/**
+	 * Where a human player's moves come from, null for bots.
+	 */
+	public PlayerInput getInput() {
+		return input;
+	}
+	
 	/**
 	 * Is the player a bot?
 	 * @return boolean
@@ -82,17 +121,92 @@ public class Player implements Comparable<Player> {
 	
 	/** 
 	 * Get the cards held by the player.
+	 * Built from the card set when it changes, callers should not modify it.
 	 * @return TreeSet<Card>
 	 */
 	public TreeSet<Card> getCards() {
-		return cards;
+		if (cardView == null) {
+			cardView = cards.toTreeSet();
+		}
+		
+		return cardView;
+	}
+	
+	/**
+	 * Get the cards held by the player as a mask (see CardSet).
+	 */
+	public long getCardMask() {
+		return cards.getMask();
+	}
+	
+	/**
+	 * Number of cards held by the player.
+	 */
+	public int getCardCount() {
+		return cards.size();
+	}
+	
+	/**
+	 * Cards held by each opponent still in the game, in playing order
+	 * from this player, passed to the AI engine with its next move.
+	 * @param count Number of opponents, -1 if not known
+	 */
+	public void setOpponentCards(int[] counts, int count) {
+		if (count > 0) {
+			System.arraycopy(counts, 0, opponentCards, 0, count);
+		}
+		
+		opponentCount = count;
 	}
 	
 	/**
 	 * Update the cards held by the player.
 	 */
 	public void setCards(TreeSet<Card> c) {
+		setCards(new CardSet(c));
+	}
+	
+	/**
+	 * Update the cards held by the player.
+	 */
+	public void setCards(CardSet c) {
 		cards = c;
+		cardView = null;
+	}
+	
+	/**
+	 * Remove played cards from the player's hand.
+	 */
+	public void removeCards(Hand played) {
+		cards.removeAll(played.getMask());
+		
+		// Keep the view in step rather than rebuilding it.
+		if (cardView != null) {
+			for (long m = played.getMask(); m != 0; m &= m - 1) {
+				cardView.remove(Card.ofIndex(Long.numberOfTrailingZeros(m)));
+			}
+		}
+	}
+	
+	/**
+	 * Copy the seat (type, position, name) with a fresh AI engine and no cards.
+	 * Used to give each tournament worker its own lineup.
+	 */
+	public Player copy() {
+		if (type != BOT) {
+			throw new UnsupportedOperationException("human players cannot be copied");
+		}
+		
+		return new Player(type, position, name, ai.copy());
+	}
+	
+	/**
+	 * Reseed the AI engine's random choices, if any.
+	 */
+	public void setSeed(long seed) {
+		if (ai != null) {
+			ai.setSeed(seed);
+		}
 	}
 	
 	/**
@@ -102,11 +216,112 @@ public class Player implements Comparable<Player> {
 	 */
 	public Hand getNextHand(Hand last, ArrayList<Hand> previous) {
 		if (type == BOT) {
-			return ai.getNextHand(cards, last, previous);
+			return decide(getCards(), last, previous, opponentCards, opponentCount);
 		}
 		
 		// Get hand from human player
-		return UserInput.getPlayerHand(this, last);
+		return input.getPlayerHand(this, last);
+	}
+	
+	/**
+	 * Get the next hand from a bot, waiting at most timeoutMillis.
+	 * The bot runs on the executor with its own copy of the cards and history.
+	 * On timeout it is interrupted and Rules.defaultHand() is played; a bot
+	 * still busy with an abandoned move is not asked again until it returns,
+	 * so each of its turns until then also times out.
+	 * Humans are not timed.
+	 * @param executor Runs the bot
+	 * @param timeoutMillis Deadline for the move
+	 */
+	public Hand getNextHand(Hand last, ArrayList<Hand> previous, ExecutorService executor, long timeoutMillis) {
+		if (type != BOT) {
+			return getNextHand(last, previous);
+		}
+		
+		if (thinking) {
+			timeouts++;
+			return Rules.defaultHand(getCardMask(), last);
+		}
+		
+		TreeSet<Card> held = cards.toTreeSet();
+		ArrayList<Hand> history = new ArrayList<Hand>(previous);
+		int[] counts = opponentCards.clone();
+		int count = opponentCount;
+		
+		// Whoever claims the move first: the bot starting it (1),
+		// or the game abandoning it before it starts (2).
+		AtomicInteger claim = new AtomicInteger();
+		thinking = true;
+		Future<Hand> move;
+		try {
+			move = executor.submit(() -> {
+				if (!claim.compareAndSet(0, 1)) {
+					return null;
+				}
+				
+				try {
+					return decide(held, last, history, counts, count);
+				} finally {
+					thinking = false;
+				}
+			});
+		} catch (RuntimeException e) {
+			thinking = false;
+			throw e;
+		}
+		
+		try {
+			return move.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			abandon(move, claim);
+			timeouts++;
+			return Rules.defaultHand(getCardMask(), last);
+		} catch (InterruptedException e) {
+			abandon(move, claim);
+			Thread.currentThread().interrupt();
+			return Rules.defaultHand(getCardMask(), last);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(name + " failed to move", e.getCause());
+		}
+	}
+	
+	/**
+	 * Give up on a move. A move that never started will not, and the bot
+	 * is free again; a started one is interrupted and frees it on return.
+	 */
+	private void abandon(Future<Hand> move, AtomicInteger claim) {
+		if (claim.compareAndSet(0, 2)) {
+			thinking = false;
+		}
+		
+		move.cancel(true);
+	}
+	
+	/**
+	 * Number of moves the bot has failed to make in time.
+	 */
+	public int getTimeouts() {
+		return timeouts;
+	}
+	
+	/**
+	 * Call the AI engine, timing it when Metrics are on.
+	 */
+	private Hand decide(TreeSet<Card> held, Hand last, ArrayList<Hand> previous, int[] counts, int count) {
+		ai.setOpponentCards(counts, count);
+		
+		if (!Metrics.isEnabled()) {
+			return ai.getNextHand(held, last, previous);
+		}
+		
+		if (latency == null) {
+			latency = Metrics.decisionLatency(ai.getClass().getSimpleName());
+		}
+		
+		long start = System.nanoTime();
+		Hand ret = ai.getNextHand(held, last, previous);
+		latency.record(System.nanoTime() - start);
+		return ret;
 	}
 
 	/** 
@@ -0,0 +1,24 @@
+package poker.player;
+
+import poker.Hand;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Where a human player's moves come from and game messages go:
+ * the console (poker.io.ConsoleInput) or a network client
+ * (poker.net.RemoteSeat). Called from the thread running the game.
+ */
+
+public interface PlayerInput extends GameListener {
+	/**
+	 * Ask the player for their next hand.
+	 * @param last Hand to beat, null when leading
+	 * @return Hand to play, null to pass
+	 */
+	public Hand getPlayerHand(Player p, Hand last);
+
+	/**
+	 * Tell the player their hand was rejected (see Rules.checkHand()).
+	 */
+	public void raiseInvalidHand(Player p, int errorType);
+}
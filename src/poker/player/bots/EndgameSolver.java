@@ -0,0 +1,275 @@
+package poker.player.bots;
+
+import java.util.Arrays;
+
+import poker.CardSet;
+import poker.GameState;
+import poker.PackedHand;
+import poker.Rules;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Exact solver for small positions with every hand known.
+ *
+ * Alpha-beta search over GameState for the best finishing place of one
+ * seat, with every other seat playing against it. Moves come from the
+ * same generator as PlayerAIBase, filtered as Rules.checkHand does;
+ * a seat that leads always plays.
+ * Results go in a transposition table keyed on the card masks, the hand
+ * to beat and the seats to move and lead. The table is kept between
+ * calls, so positions seen in earlier games are not searched again.
+ * One solver per thread.
+ */
+
+public class EndgameSolver {
+	public static final int DEFAULT_TABLE_SIZE = 1 << 16;
+
+	private static final int EXACT = 0;
+	private static final int LOWER = 1;
+	private static final int UPPER = 2;
+
+	// Transposition table: key, and value | flag << 4 (0 when empty).
+	private final long[] tableKeys;
+	private final byte[] tableEntries;
+	private final int tableMask;
+
+	// Move lists by search depth, then by hand size.
+	private MoveList[][] lists;
+
+	private int root;
+	private long nodes;
+	private long elapsedNanos;
+
+	public EndgameSolver() {
+		this(DEFAULT_TABLE_SIZE);
+	}
+
+	/**
+	 * @param tableSize Transposition table entries (rounded up to a power of two)
+	 */
+	public EndgameSolver(int tableSize) {
+		int size = Integer.highestOneBit(Math.max(2, tableSize - 1)) << 1;
+		tableKeys = new long[size];
+		tableEntries = new byte[size];
+		tableMask = size - 1;
+		lists = new MoveList[0][];
+	}
+
+	/**
+	 * Best move for the seat to move.
+	 * @param state Position, unchanged on return
+	 * @return Packed hand, PackedHand.NONE to pass
+	 */
+	public long solve(GameState state) {
+		long start = System.nanoTime();
+		root = state.getToMove();
+
+		long best = PackedHand.NONE;
+		int bestValue = -1;
+		int count = collectMoves(state, 0);
+		MoveList[] moves = lists[0];
+
+		for (int i = 0; i < count; i++) {
+			long move = moveAt(moves, state, i);
+			state.apply(move);
+			int value = search(state, 1, bestValue, state.getSeatCount());
+			state.undo(move);
+
+			if (value > bestValue) {
+				bestValue = value;
+				best = move;
+			}
+		}
+
+		elapsedNanos += System.nanoTime() - start;
+		return best;
+	}
+
+	/**
+	 * Best finishing place a seat can be sure of.
+	 * @param state Position, unchanged on return
+	 * @param seat Seat to solve for
+	 * @return 0 for first, 1 for second, ...
+	 */
+	public int solvePlace(GameState state, int seat) {
+		long start = System.nanoTime();
+		root = seat;
+		int value = search(state, 0, -1, state.getSeatCount());
+		elapsedNanos += System.nanoTime() - start;
+
+		return state.getSeatCount() - 1 - value;
+	}
+
+	/**
+	 * Positions searched since the solver was created.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public double getNodesPerSecond() {
+		return elapsedNanos == 0 ? 0 : nodes / (elapsedNanos / 1e9);
+	}
+
+	/**
+	 * Forget all solved positions.
+	 */
+	public void clear() {
+		Arrays.fill(tableKeys, 0);
+		Arrays.fill(tableEntries, (byte) 0);
+	}
+
+	/**
+	 * Value for root: seat count - 1 - place, so higher is better.
+	 */
+	private int search(GameState state, int depth, int alpha, int beta) {
+		nodes++;
+
+		if (!state.isActive(root)) {
+			for (int place = 0; place < state.getFinishCount(); place++) {
+				if (state.getFinisher(place) == root) {
+					return state.getSeatCount() - 1 - place;
+				}
+			}
+		}
+
+		long key = key(state);
+		int slot = (int) key & tableMask;
+		if (tableKeys[slot] == key && tableEntries[slot] != 0) {
+			int entry = tableEntries[slot];
+			int value = (entry & 0xF) - 1;
+			int flag = entry >> 4;
+
+			if (flag == EXACT) {
+				return value;
+			} else if (flag == LOWER) {
+				alpha = Math.max(alpha, value);
+			} else {
+				beta = Math.min(beta, value);
+			}
+
+			if (alpha >= beta) {
+				return value;
+			}
+		}
+
+		boolean maximizing = state.getToMove() == root;
+		int alphaIn = alpha, betaIn = beta;
+		int best = maximizing ? -1 : state.getSeatCount();
+		int count = collectMoves(state, depth);
+		MoveList[] moves = lists[depth];
+
+		for (int i = 0; i < count && alpha < beta; i++) {
+			long move = moveAt(moves, state, i);
+			state.apply(move);
+			int value = search(state, depth + 1, alpha, beta);
+			state.undo(move);
+
+			if (maximizing) {
+				best = Math.max(best, value);
+				alpha = Math.max(alpha, best);
+			} else {
+				best = Math.min(best, value);
+				beta = Math.min(beta, best);
+			}
+		}
+
+		int flag = best <= alphaIn ? UPPER : (best >= betaIn ? LOWER : EXACT);
+		tableKeys[slot] = key;
+		tableEntries[slot] = (byte) ((best + 1) | (flag << 4));
+
+		return best;
+	}
+
+	/**
+	 * Generate the moves of the seat to move at a depth.
+	 * Moves are numbered: leading, sizes 5 down to 1 (shedding most first);
+	 * following, the hands that beat last lowest first, then pass.
+	 * @return number of moves
+	 */
+	private int collectMoves(GameState state, int depth) {
+		if (depth == lists.length) {
+			lists = Arrays.copyOf(lists, Math.max(16, depth * 2));
+			for (int d = depth; d < lists.length; d++) {
+				lists[d] = new MoveList[Rules.MAX_HAND_SIZE + 1];
+				for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+					lists[d][i] = new MoveList();
+				}
+			}
+		}
+
+		MoveList[] moves = lists[depth];
+		long cards = state.getCards(state.getToMove());
+		PlayerAIBase.generateMoves(cards, moves);
+
+		long mustPlay = state.getStartingCard();
+		if (mustPlay != CardSet.EMPTY) {
+			for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+				moves[i].keepUsing(mustPlay);
+			}
+		}
+
+		long last = state.getLast();
+		if (last == PackedHand.NONE) {
+			int count = 0;
+			for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+				count += moves[i].size();
+			}
+
+			return count;
+		}
+
+		MoveList hands = moves[PackedHand.size(last)];
+		return hands.size() - hands.indexAbove(last) + 1;
+	}
+
+	/**
+	 * Move number i, in the order described in collectMoves().
+	 */
+	private long moveAt(MoveList[] moves, GameState state, int i) {
+		long last = state.getLast();
+
+		if (last == PackedHand.NONE) {
+			for (int size = Rules.MAX_HAND_SIZE; size >= 1; size--) {
+				if (i < moves[size].size()) {
+					return moves[size].get(i);
+				}
+
+				i -= moves[size].size();
+			}
+		}
+
+		MoveList hands = moves[PackedHand.size(last)];
+		int first = hands.indexAbove(last);
+		return first + i < hands.size() ? hands.get(first + i) : PackedHand.NONE;
+	}
+
+	/**
+	 * 64 bit hash of everything the value depends on.
+	 */
+	private long key(GameState state) {
+		long h = state.getLast() & CardSet.ALL;
+		h = mix(h ^ ((long) state.getToMove() << 52 | (long) state.getLastSeat() << 56 | (long) root << 60));
+		h = mix(h ^ state.getStartingCard());
+
+		for (int s = 0; s < state.getSeatCount(); s++) {
+			h = mix(h + state.getCards(s) + (s + 1) * 0x9E3779B97F4A7C15L);
+		}
+
+		// 0 marks an empty slot
+		return h == 0 ? 1 : h;
+	}
+
+	/**
+	 * SplitMix64 finalizer.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
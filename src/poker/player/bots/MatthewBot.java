@@ -1,13 +1,12 @@
 package poker.player.bots;
 
 import java.util.ArrayList;
-import java.util.List;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 import poker.Card;
 import poker.Hand;
 import poker.Logger;
+import poker.PackedHand;
 
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
@@ -16,46 +15,35 @@ import poker.Logger;
 
 public class MatthewBot extends PlayerAIBase {
 	
-	private int cardHash;
-	
 	public MatthewBot() {
 		super();		
-		cardHash = 0;
 	}
 	
 	public Hand getNextHand(TreeSet<Card> cards, Hand last, ArrayList<Hand> previous) {
-		if (cards.hashCode() != cardHash) {
-			cardHash = cards.hashCode();
-			populateValidHands(cards);
-		}
+		updateValidHands(cards);
 		
 		// opening bid must include lowest card...
 		// for now always open just single card low
 		if (previous == null || previous.size() == 0) {
-			return validHands.get(1).last();
+			return PackedHand.toHand(moves[1].get(0));
 		}
 		
 		else if (last == null) {
 			// Todo implement hand selection logic...
 			// Currently playing lowest possible hand.
 			for (int i = 1; i <= 5; i++) {
-				TreeSet<Hand> hands = validHands.get(i);
-				if (hands.size() > 0) {
-					return hands.last();
+				if (!moves[i].isEmpty()) {
+					return PackedHand.toHand(moves[i].get(0));
 				}
 			}
 		} else {
-			TreeSet<Hand> hands = validHands.get(last.getSize());
+			MoveList hands = moves[last.getSize()];
 			
-			if (hands.isEmpty()) {
-				return null;
+			// Lowest hand that beats the last one (lists are ordered low to high).
+			int i = hands.indexAbove(PackedHand.of(last));
+			if (i < hands.size()) {
+				return PackedHand.toHand(hands.get(i));
 			}
-			
-			TreeSet<Hand> valid = new TreeSet<Hand>(hands.stream().filter(h -> h.getScore() > last.getScore()).collect(Collectors.toList()));
-			if (valid.size() > 0) {
-				return valid.last();
-			}
-			
 		}
 
 		return null;
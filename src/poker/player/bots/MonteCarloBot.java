@@ -0,0 +1,508 @@
+package poker.player.bots;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import poker.Card;
+import poker.CardSet;
+import poker.Deck;
+import poker.GameState;
+import poker.Hand;
+import poker.PackedHand;
+import poker.Rules;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * 
+ * Monte Carlo Bot.
+ * Basic algorithm:
+ *    Deal the cards nobody has played yet at random to the opponents,
+ *    each getting as many as they hold.
+ *    Play the game out from each candidate move, every seat playing
+ *    the lowest hand allowed (see RolloutSeat).
+ *    Play the move with the best average finishing place.
+ * 
+ * The game tells the bot how many cards each opponent still holds (see
+ * setOpponentCards), so at a table of 2 or 3, or once seats have gone
+ * out, the cards left undealt are left out of the sample. Not told, it
+ * assumes a full table sharing the unseen cards evenly.
+ * Rollouts are split into a fixed number of streams run on a fork-join
+ * pool, and stop at the time budget or the rollout limit. With the time
+ * budget off and a seed set the choices are reproducible.
+ * 
+ * Once few cards are left in play (see setEndgameThreshold), e.g. with
+ * only two players remaining, each sampled deal is solved exactly by an
+ * EndgameSolver instead of played out greedily, at the real number of
+ * seats when the bot has been told the opponents' card counts.
+ */
+
+public class MonteCarloBot extends PlayerAIBase {
+	// Rollout streams per move, independent of the pool size.
+	static final int STREAMS = 8;
+	
+	// Candidates considered when there are too many moves.
+	static final int MAX_CANDIDATES = 16;
+	
+	private static final int SEATS = Rules.MAX_PLAYERS;
+	
+	private ForkJoinPool pool;
+	private long timeBudgetNanos;
+	private int rolloutLimit;
+	private int endgameThreshold;
+	private SplittableRandom rand;
+	
+	// Per-move search state, reused between moves.
+	private long[] candidates;
+	private int candidateCount;
+	private Stream[] streams;
+	
+	public MonteCarloBot() {
+		super();
+		pool = ForkJoinPool.commonPool();
+		timeBudgetNanos = 20 * 1000000L;
+		rolloutLimit = 1000;
+		endgameThreshold = 8;
+		rand = new SplittableRandom();
+		candidates = new long[MAX_CANDIDATES];
+		
+		streams = new Stream[STREAMS];
+		for (int i = 0; i < STREAMS; i++) {
+			streams[i] = new Stream();
+		}
+	}
+	
+	@Override
+	public void setSeed(long seed) {
+		rand = new SplittableRandom(seed);
+	}
+	
+	/**
+	 * Set the pool the rollouts run on (default: the common pool).
+	 */
+	public void setPool(ForkJoinPool rolloutPool) {
+		pool = rolloutPool;
+	}
+	
+	/**
+	 * Set the time allowed per move, 0 for no limit.
+	 * @param millis Milliseconds
+	 */
+	public void setTimeBudget(long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("time budget must not be negative");
+		}
+		
+		timeBudgetNanos = millis * 1000000L;
+	}
+	
+	/**
+	 * Set the maximum number of rollouts per move.
+	 */
+	public void setRolloutLimit(int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("rollout limit must be positive");
+		}
+		
+		rolloutLimit = limit;
+	}
+	
+	/**
+	 * Solve sampled deals exactly once this many cards or fewer are
+	 * left in play (ours and the opponents'), 0 to never solve.
+	 */
+	public void setEndgameThreshold(int cards) {
+		if (cards < 0) {
+			throw new IllegalArgumentException("endgame threshold must not be negative");
+		}
+		
+		endgameThreshold = cards;
+	}
+	
+	/**
+	 * Endgame solver speed over all moves so far, for tuning the threshold.
+	 */
+	public double getEndgameNodesPerSecond() {
+		long nodes = 0, nanos = 0;
+		for (Stream s : streams) {
+			if (s.solver != null) {
+				nodes += s.solver.getNodes();
+				nanos += s.solver.getElapsedNanos();
+			}
+		}
+		
+		return nanos == 0 ? 0 : nodes / (nanos / 1e9);
+	}
+	
+	/**
+	 * Copy the search settings along with the bot.
+	 */
+	@Override
+	public PlayerAIBase copy() {
+		MonteCarloBot ret = new MonteCarloBot();
+		ret.pool = pool;
+		ret.timeBudgetNanos = timeBudgetNanos;
+		ret.rolloutLimit = rolloutLimit;
+		ret.endgameThreshold = endgameThreshold;
+		return ret;
+	}
+	
+	public Hand getNextHand(TreeSet<Card> cards, Hand last, ArrayList<Hand> previous) {
+		long mine = CardSet.maskOf(cards);
+		updateValidHands(mine);
+		
+		long played = CardSet.EMPTY;
+		if (previous != null) {
+			for (Hand h : previous) {
+				played |= h.getMask();
+			}
+		}
+		
+		boolean opening = previous == null || previous.size() == 0;
+		long lastPacked = last == null ? PackedHand.NONE : PackedHand.of(last);
+		findCandidates(mine, lastPacked, opening);
+		
+		if (candidateCount == 0) {
+			return null;
+		}
+		
+		int best = 0;
+		if (candidateCount > 1) {
+			best = search(mine, CardSet.ALL & ~mine & ~played, lastPacked);
+		}
+		
+		long choice = candidates[best];
+		return choice == PackedHand.NONE ? null : PackedHand.toHand(choice);
+	}
+	
+	/**
+	 * Collect the moves worth simulating.
+	 * Opening: every hand with the lowest card. Leading: the lowest few
+	 * hands of each size and the highest. Following: the lowest hands
+	 * that beat last, the highest, and pass.
+	 */
+	private void findCandidates(long mine, long last, boolean opening) {
+		candidateCount = 0;
+		
+		if (opening) {
+			long lowest = Long.lowestOneBit(mine);
+			for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+				MoveList hands = moves[i];
+				for (int j = 0; j < hands.size() && candidateCount < MAX_CANDIDATES; j++) {
+					if ((hands.get(j) & lowest) != 0) {
+						candidates[candidateCount++] = hands.get(j);
+					}
+				}
+			}
+		} else if (last == PackedHand.NONE) {
+			int perSize = MAX_CANDIDATES / Rules.MAX_HAND_SIZE;
+			for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+				addRange(moves[i], 0, perSize);
+			}
+		} else {
+			MoveList hands = moves[PackedHand.size(last)];
+			addRange(hands, hands.indexAbove(last), MAX_CANDIDATES - 1);
+			
+			// Last, so that a tie goes to playing cards.
+			candidates[candidateCount++] = PackedHand.NONE;
+		}
+	}
+	
+	/**
+	 * Add up to count hands from first on, the highest hand always included.
+	 */
+	private void addRange(MoveList hands, int first, int count) {
+		int available = hands.size() - first;
+		if (available <= 0) {
+			return;
+		}
+		
+		int low = Math.min(available, count) - (available > count ? 1 : 0);
+		for (int j = 0; j < low; j++) {
+			candidates[candidateCount++] = hands.get(first + j);
+		}
+		
+		if (available > count) {
+			candidates[candidateCount++] = hands.get(hands.size() - 1);
+		}
+	}
+	
+	/**
+	 * Run the rollouts.
+	 * @return index of the candidate with the best average place
+	 */
+	private int search(long mine, long unseen, long last) {
+		long moveSeed = rand.nextLong();
+		long deadline = timeBudgetNanos == 0 ? 0 : System.nanoTime() + timeBudgetNanos;
+		int perStream = (rolloutLimit + STREAMS - 1) / STREAMS;
+		
+		// cards really in play: the unseen ones include any never dealt
+		int inPlay = Long.bitCount(mine);
+		if (opponentCount > 0) {
+			for (int o = 0; o < opponentCount; o++) {
+				inPlay += opponentCards[o];
+			}
+		} else {
+			inPlay += Long.bitCount(unseen);
+		}
+		boolean endgame = inPlay <= endgameThreshold;
+		
+		for (int s = 0; s < STREAMS; s++) {
+			streams[s].prepare(Deck.deriveSeed(moveSeed, s), mine, unseen, last, perStream, deadline, endgame);
+		}
+		
+		pool.invoke(new Rollouts(0, STREAMS));
+		
+		int best = 0;
+		double bestPlace = Double.MAX_VALUE;
+		for (int c = 0; c < candidateCount; c++) {
+			long places = 0, count = 0;
+			for (Stream s : streams) {
+				places += s.placeSums[c];
+				count += s.counts[c];
+			}
+			
+			if (count > 0 && (double) places / count < bestPlace) {
+				bestPlace = (double) places / count;
+				best = c;
+			}
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * To string.
+	 */
+	@Override 
+	public String toString() {
+		return String.format("MonteCarloBot(%s)", playerName);
+	}
+	
+	/**
+	 * Fork-join split over the streams.
+	 */
+	private final class Rollouts extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int first, last;
+		
+		Rollouts(int firstStream, int lastStream) {
+			first = firstStream;
+			last = lastStream;
+		}
+		
+		@Override
+		protected void compute() {
+			if (last - first == 1) {
+				streams[first].run();
+			} else {
+				int mid = (first + last) >>> 1;
+				invokeAll(new Rollouts(first, mid), new Rollouts(mid, last));
+			}
+		}
+	}
+	
+	/**
+	 * One stream of rollouts with its own random numbers, seats and totals.
+	 * Seat 0 is this bot; the others are the opponents in playing order.
+	 */
+	private final class Stream {
+		final long[] placeSums = new long[MAX_CANDIDATES];
+		final int[] counts = new int[MAX_CANDIDATES];
+		final RolloutSeat[] seats = new RolloutSeat[SEATS];
+		final int[] unseenCards = new int[52];
+		
+		// Solver positions and deals by seat count, made on first use.
+		final GameState[] states = new GameState[SEATS + 1];
+		final long[][] deals = new long[SEATS + 1][];
+		
+		SplittableRandom random;
+		EndgameSolver solver;
+		long mine, unseen, last, deadline;
+		int limit;
+		boolean endgame;
+		
+		Stream() {
+			for (int i = 0; i < SEATS; i++) {
+				seats[i] = new RolloutSeat();
+			}
+		}
+		
+		void prepare(long seed, long myCards, long unseenMask, long lastPlay, int rollouts, long stopAt, boolean solve) {
+			random = new SplittableRandom(seed);
+			mine = myCards;
+			unseen = unseenMask;
+			last = lastPlay;
+			limit = rollouts;
+			deadline = stopAt;
+			endgame = solve;
+			
+			// Kept from move to move and game to game, so is the solver's table.
+			if (endgame && solver == null) {
+				solver = new EndgameSolver();
+			}
+			
+			for (int c = 0; c < candidateCount; c++) {
+				placeSums[c] = 0;
+				counts[c] = 0;
+			}
+		}
+		
+		void run() {
+			for (int i = 0; i < limit; i++) {
+				if (deadline != 0 && System.nanoTime() >= deadline) {
+					break;
+				}
+				
+				int c = i % candidateCount;
+				placeSums[c] += rollout(candidates[c]);
+				counts[c]++;
+			}
+		}
+		
+		/**
+		 * Deal the unseen cards and play out the game after a move.
+		 * @return this bot's finishing place (1 = first out)
+		 */
+		private int rollout(long move) {
+			int opponents = deal();
+			
+			if (endgame && opponents > 0) {
+				return solve(move, opponents);
+			}
+			
+			long myCards = mine & ~PackedHand.mask(move);
+			if (myCards == CardSet.EMPTY) {
+				return 1;
+			}
+			seats[0].deal(myCards);
+			
+			int active = (1 << (opponents + 1)) - 1;
+			int outs = 0;
+			
+			// Passing leaves the last play to the opponent before us.
+			int lastSuccess = move == PackedHand.NONE ? opponents : 0;
+			long toBeat = move == PackedHand.NONE ? last : move;
+			int next = nextSeat(active, 0);
+			
+			while (true) {
+				if (next == lastSuccess) {
+					toBeat = PackedHand.NONE;
+				}
+				
+				long play = seats[next].play(toBeat);
+				if (play != PackedHand.NONE) {
+					toBeat = play;
+					lastSuccess = next;
+					
+					if (seats[next].getCards() == CardSet.EMPTY) {
+						if (next == 0) {
+							return outs + 1;
+						}
+						
+						outs++;
+						active &= ~(1 << next);
+						if (active == 1) {
+							return outs + 1;
+						}
+						
+						// The next player leads a new round.
+						next = nextSeat(active, next);
+						lastSuccess = next;
+						continue;
+					}
+				}
+				
+				next = nextSeat(active, next);
+			}
+		}
+		
+		/**
+		 * Solve the sampled deal after a move, every hand known.
+		 * @return this bot's finishing place (1 = first out)
+		 */
+		private int solve(long move, int opponents) {
+			int seatCount = opponents + 1;
+			long[] seatCards = deals[seatCount];
+			if (seatCards == null) {
+				seatCards = deals[seatCount] = new long[seatCount];
+			}
+			
+			seatCards[0] = mine;
+			for (int o = 1; o <= opponents; o++) {
+				seatCards[o] = seats[o].getCards();
+			}
+			
+			int lastSeat = last == PackedHand.NONE ? 0 : opponents;
+			GameState state = states[seatCount];
+			if (state == null) {
+				state = states[seatCount] = new GameState(seatCards, 0, last, lastSeat);
+			} else {
+				state.reset(seatCards, 0, last, lastSeat);
+			}
+			state.apply(move);
+			
+			return solver.solvePlace(state, 0) + 1;
+		}
+		
+		/**
+		 * Shuffle the unseen cards out to the opponents, each getting the
+		 * number of cards they hold, or as evenly as possible if not known.
+		 * @return number of opponents dealt cards
+		 */
+		private int deal() {
+			int n = 0;
+			for (long m = unseen; m != 0; m &= m - 1) {
+				unseenCards[n++] = Long.numberOfTrailingZeros(m);
+			}
+			
+			if (opponentCount > 0) {
+				// draw just the cards held, the rest were never dealt
+				int i = 0;
+				for (int o = 0; o < opponentCount; o++) {
+					long hand = CardSet.EMPTY;
+					for (int k = 0; k < opponentCards[o] && i < n; k++, i++) {
+						int j = i + random.nextInt(n - i);
+						int t = unseenCards[j];
+						unseenCards[j] = unseenCards[i];
+						unseenCards[i] = t;
+						hand |= 1L << t;
+					}
+					
+					seats[o + 1].deal(hand);
+				}
+				
+				return opponentCount;
+			}
+			
+			for (int i = n - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int t = unseenCards[i];
+				unseenCards[i] = unseenCards[j];
+				unseenCards[j] = t;
+			}
+			
+			int opponents = Math.min(SEATS - 1, n);
+			for (int o = 0; o < opponents; o++) {
+				long hand = CardSet.EMPTY;
+				for (int i = o; i < n; i += opponents) {
+					hand |= 1L << unseenCards[i];
+				}
+				
+				seats[o + 1].deal(hand);
+			}
+			
+			return opponents;
+		}
+		
+		private int nextSeat(int active, int seat) {
+			do {
+				seat = (seat + 1) % SEATS;
+			} while ((active & (1 << seat)) == 0);
+			
+			return seat;
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package poker.player.bots;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import poker.PackedHand;
+import poker.Rules;
+import poker.SuitSymmetry;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Bounded cache of enumerated valid hands by card mask, shared by all bots
+ * (see PlayerAIBase.generateMoves) so holdings that come up again, in this
+ * game or another, are not enumerated again.
+ *
+ * 4-way set associative: a mask can only live in one set of 4 entries,
+ * and a full set drops its least recently used entry. Sets are guarded
+ * by striped locks and lookups do not allocate.
+ *
+ * Entries are keyed on the suit canonical form of the holding (see
+ * SuitSymmetry), so one entry serves every suit relabelling of it; hands
+ * are mapped back to the real suits and sorted again on the way out.
+ */
+
+public class MoveCache {
+	public static final int DEFAULT_SIZE = 1 << 14;
+
+	private static final int WAYS = 4;
+	private static final int STRIPES = 64;
+	private static final long EMPTY_KEY = -1L;
+
+	private static volatile MoveCache shared = new MoveCache(DEFAULT_SIZE);
+
+	private final int setMask;
+	private final long[] keys;
+	private final long[][] values;
+	private final long[] stamps;
+	private final long[] ticks;
+	private final Object[] locks;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxEntries Capacity (rounded up to a power of two, at least 4)
+	 */
+	public MoveCache(int maxEntries) {
+		int sets = Integer.highestOneBit(Math.max(1, (maxEntries + WAYS - 1) / WAYS - 1)) << 1;
+		setMask = sets - 1;
+		keys = new long[sets * WAYS];
+		values = new long[sets * WAYS][];
+		stamps = new long[sets * WAYS];
+		ticks = new long[STRIPES];
+		Arrays.fill(keys, EMPTY_KEY);
+
+		locks = new Object[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	/**
+	 * The cache used by all bots, null if caching is off.
+	 */
+	public static MoveCache getShared() {
+		return shared;
+	}
+
+	/**
+	 * Replace the shared cache, null to turn caching off.
+	 */
+	public static void setShared(MoveCache cache) {
+		shared = cache;
+	}
+
+	/**
+	 * Look up a holding.
+	 * @param cards Card mask
+	 * @param moves Filled with the hands by size on a hit
+	 * @return true on a hit
+	 */
+	public boolean get(long cards, MoveList[] moves) {
+		int permutation = SuitSymmetry.canonicalPermutation(cards);
+		long key = SuitSymmetry.permute(cards, permutation);
+		int set = setOf(key);
+		long[] found = null;
+
+		synchronized (locks[set & (STRIPES - 1)]) {
+			for (int i = set * WAYS; i < (set + 1) * WAYS; i++) {
+				if (keys[i] == key) {
+					stamps[i] = ++ticks[set & (STRIPES - 1)];
+					found = values[i];
+					break;
+				}
+			}
+		}
+
+		if (found == null) {
+			misses.increment();
+			return false;
+		}
+
+		// Entries are never changed once stored, copy outside the lock.
+		hits.increment();
+		int inverse = SuitSymmetry.inverse(permutation);
+		int next = Rules.MAX_HAND_SIZE;
+		for (int size = 1; size <= Rules.MAX_HAND_SIZE; size++) {
+			moves[size].clear();
+			for (int end = next + (int) found[size - 1]; next < end; next++) {
+				moves[size].add(PackedHand.permute(found[next], inverse));
+			}
+
+			if (permutation != SuitSymmetry.IDENTITY) {
+				moves[size].sort();
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Store the hands for a holding.
+	 * @param cards Card mask
+	 * @param moves Hands by size (index 0 unused)
+	 */
+	public void put(long cards, MoveList[] moves) {
+		int total = 0;
+		for (int size = 1; size <= Rules.MAX_HAND_SIZE; size++) {
+			total += moves[size].size();
+		}
+
+		// Counts by size first, then the hands in canonical suits.
+		int permutation = SuitSymmetry.canonicalPermutation(cards);
+		long key = SuitSymmetry.permute(cards, permutation);
+		long[] value = new long[Rules.MAX_HAND_SIZE + total];
+		int next = Rules.MAX_HAND_SIZE;
+		for (int size = 1; size <= Rules.MAX_HAND_SIZE; size++) {
+			int first = next;
+			value[size - 1] = moves[size].size();
+			for (int i = 0; i < moves[size].size(); i++) {
+				value[next++] = PackedHand.permute(moves[size].get(i), permutation);
+			}
+
+			if (permutation != SuitSymmetry.IDENTITY) {
+				Arrays.sort(value, first, next);
+			}
+		}
+
+		int set = setOf(key);
+		synchronized (locks[set & (STRIPES - 1)]) {
+			int victim = set * WAYS;
+			for (int i = set * WAYS; i < (set + 1) * WAYS; i++) {
+				if (keys[i] == key || keys[i] == EMPTY_KEY) {
+					victim = i;
+					break;
+				}
+
+				if (stamps[i] < stamps[victim]) {
+					victim = i;
+				}
+			}
+
+			if (keys[victim] != key && keys[victim] != EMPTY_KEY) {
+				evictions.increment();
+			}
+
+			keys[victim] = key;
+			values[victim] = value;
+			stamps[victim] = ++ticks[set & (STRIPES - 1)];
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Drop every entry and reset the counters.
+	 */
+	public void clear() {
+		for (int s = 0; s < STRIPES; s++) {
+			synchronized (locks[s]) {
+				for (int set = s; set <= setMask; set += STRIPES) {
+					for (int i = set * WAYS; i < (set + 1) * WAYS; i++) {
+						keys[i] = EMPTY_KEY;
+						values[i] = null;
+						stamps[i] = 0;
+					}
+				}
+			}
+		}
+
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MoveCache(%d entries, %d hits, %d misses, %d evictions)",
+			capacity(), getHits(), getMisses(), getEvictions());
+	}
+
+	private int setOf(long cards) {
+		long z = cards * 0x9E3779B97F4A7C15L;
+		return (int) (z ^ (z >>> 32)) & setMask;
+	}
+}
@@ -0,0 +1,64 @@
+package poker.player.bots;
+
+import poker.Rules;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Valid hands for a card mask, as packed hands in lists by size, kept up
+ * to date as cards are played. Used by PlayerAIBase and by RolloutSeat.
+ */
+
+final class MoveIndex {
+	// Valid hands by size (1 - 5) as packed hands, lowest first.
+	final MoveList[] moves;
+
+	// Cards the index was built for.
+	private long indexedCards;
+	private boolean indexed;
+
+	MoveIndex() {
+		moves = new MoveList[Rules.MAX_HAND_SIZE + 1];
+		for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+			moves[i] = new MoveList();
+		}
+	}
+
+	/**
+	 * Bring the index up to date with the cards held.
+	 * When cards have only been removed since the last call, only the
+	 * hands using a removed card are dropped; everything else is kept.
+	 * @param cards Card mask held
+	 * @return true if the index changed
+	 */
+	boolean update(long cards) {
+		if (indexed && cards == indexedCards) {
+			return false;
+		}
+
+		// New cards (i.e. a new deal), start over.
+		if (!indexed || (cards & ~indexedCards) != 0) {
+			rebuild(cards);
+			return true;
+		}
+
+		// The index holds every combination, so nothing needs to be added.
+		long removed = indexedCards & ~cards;
+		for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+			moves[i].removeUsing(removed);
+		}
+
+		indexedCards = cards;
+		return true;
+	}
+
+	/**
+	 * Enumerate every valid hand of the cards held, from scratch.
+	 * @param cards Card mask held
+	 */
+	void rebuild(long cards) {
+		indexed = true;
+		indexedCards = cards;
+
+		PlayerAIBase.generateMoves(cards, moves);
+	}
+}
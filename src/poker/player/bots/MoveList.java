@@ -0,0 +1,115 @@
+package poker.player.bots;
+
+import java.util.Arrays;
+
+import poker.PackedHand;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Growable list of packed hands (see PackedHand).
+ * Once sorted the hands are in ascending order: lowest strength first,
+ * then lowest cards first.
+ */
+
+public class MoveList {
+	private long[] moves;
+	private int size;
+
+	public MoveList() {
+		moves = new long[16];
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Get a packed hand.
+	 */
+	public long get(int i) {
+		return moves[i];
+	}
+
+	public void add(long packed) {
+		if (size == moves.length) {
+			moves = Arrays.copyOf(moves, size * 2);
+		}
+
+		moves[size++] = packed;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Sort ascending and drop duplicates.
+	 */
+	public void sort() {
+		Arrays.sort(moves, 0, size);
+
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (kept == 0 || moves[kept - 1] != moves[i]) {
+				moves[kept++] = moves[i];
+			}
+		}
+
+		size = kept;
+	}
+
+	/**
+	 * Drop every hand that uses one of the cards, keeping the order.
+	 * @param cards Card mask
+	 */
+	public void removeUsing(long cards) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if ((moves[i] & cards) == 0) {
+				moves[kept++] = moves[i];
+			}
+		}
+
+		size = kept;
+	}
+
+	/**
+	 * Keep only the hands that use one of the cards, keeping the order.
+	 * @param cards Card mask
+	 */
+	public void keepUsing(long cards) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if ((moves[i] & cards) != 0) {
+				moves[kept++] = moves[i];
+			}
+		}
+
+		size = kept;
+	}
+
+	/**
+	 * Position of the first hand stronger than the given one
+	 * (size() if there is none). The list must be sorted.
+	 */
+	public int indexAbove(long packed) {
+		long key = PackedHand.above(packed);
+		int low = 0, high = size;
+
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (moves[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+}
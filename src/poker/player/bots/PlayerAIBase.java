@@ -1,14 +1,15 @@
 package poker.player.bots;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.TreeSet;
 import poker.Card;
+import poker.CardSet;
 import poker.Hand;
-import poker.enums.Rank;
-import poker.enums.Suit;
+import poker.Metrics;
+import poker.PackedHand;
+import poker.Rules;
 
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
@@ -17,16 +18,34 @@ import poker.enums.Suit;
 public abstract class PlayerAIBase implements IPokerBot {
 	
 	protected String playerName;
-	protected HashMap<Integer, TreeSet<Hand>> validHands;
+	
+	// Valid hands by size (1 - 5) as packed hands, lowest first.
+	protected MoveList[] moves;
+	private final MoveIndex index = new MoveIndex();
+	
+	// The same hands as Hand objects, for bots that prefer them.
+	// Only reachable through getHands(), which rebuilds it from moves.
+	private HashMap<Integer, TreeSet<Hand>> validHands;
+	
+	/**
+	 * Valid hand ordering: by score, highest first, like Hand.compareTo().
+	 * Ties are broken on the cards so every suit variant of a hand is kept;
+	 * the last hand in a set is the lowest hand made of the lowest cards.
+	 */
+	protected static final Comparator<Hand> HAND_ORDER = (a, b) -> {
+		int ret = a.compareTo(b);
+		return ret != 0 ? ret : Long.compare(b.getMask(), a.getMask());
+	};
+	
+	private boolean viewCurrent;
+	
+	// Cards held by each opponent still playing, in playing order from
+	// the seat after this one; opponentCount is -1 when not told.
+	protected final int[] opponentCards = new int[Rules.MAX_PLAYERS - 1];
+	protected int opponentCount = -1;
 	
 	public PlayerAIBase() {
-		// Initialize hand map.
-		validHands = new HashMap<Integer, TreeSet<Hand>>();
-		validHands.put(1, new TreeSet<Hand>());
-		validHands.put(2, new TreeSet<Hand>());
-		validHands.put(3, new TreeSet<Hand>());
-		validHands.put(4, new TreeSet<Hand>());
-		validHands.put(5, new TreeSet<Hand>()); // Grouping all 5 card hands.
+		moves = index.moves;
 	}
 	
 	/**
@@ -37,6 +56,42 @@ public abstract class PlayerAIBase implements IPokerBot {
 		playerName = name;
 	}
 	
+	/**
+	 * Reseed the bot's random choices, for reproducible games.
+	 * Bots without randomness ignore it.
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+	}
+	
+	/**
+	 * Create a new instance of this bot with no hand state.
+	 * Bots that need constructor arguments must override.
+	 * @return PlayerAIBase
+	 */
+	public PlayerAIBase copy() {
+		try {
+			return getClass().getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to copy " + this, e);
+		}
+	}
+	
+	/**
+	 * Tell the bot how many cards each opponent still in the game holds,
+	 * in playing order from the seat after this one. The game does so
+	 * before each move; the counts hold until the next call.
+	 * @param counts Cards held by each opponent
+	 * @param count Number of opponents, -1 if not known
+	 */
+	public void setOpponentCards(int[] counts, int count) {
+		if (count > 0) {
+			System.arraycopy(counts, 0, opponentCards, 0, count);
+		}
+		
+		opponentCount = count;
+	}
+	
 	/**
 	 * Main API interface.
 	 * @param cards Cards held by player
@@ -46,9 +101,14 @@ public abstract class PlayerAIBase implements IPokerBot {
 	public abstract Hand getNextHand(TreeSet<Card> cards, Hand last, ArrayList<Hand> previous);
 	
 	/**
-	 * Used for testing.
+	 * Valid hands by size (1 - 5) as Hand objects, highest first.
+	 * Rebuilt from moves whenever the index has changed since the last call.
 	 */
 	public HashMap<Integer, TreeSet<Hand>> getHands() {
+		if (!viewCurrent) {
+			buildHandView();
+		}
+		
 		return validHands;
 	}
 	
@@ -61,138 +121,194 @@ public abstract class PlayerAIBase implements IPokerBot {
 	}
 	
 	/**
-	 * Enumerate all valid hands
-	 * Todo: does not actually enumerate all straights and flushes...
+	 * Bring the valid hand index (moves) up to date with the cards held.
+	 * When cards have only been removed since the last call, only the
+	 * hands using a removed card are dropped; everything else is kept.
+	 * @param cards Cards held by Player
+	 */
+	protected void updateValidHands(TreeSet<Card> cards) {
+		updateValidHands(CardSet.maskOf(cards));
+	}
+	
+	/**
+	 * Bring the valid hand index (moves) up to date with the cards held.
+	 * @param cards Card mask held by Player
+	 */
+	protected void updateValidHands(long cards) {
+		if (index.update(cards)) {
+			viewCurrent = false;
+		}
+	}
+	
+	/**
+	 * Enumerate all valid hands (moves, and getHands()).
 	 * @param cards Cards held by Player
-	 * @return Map from HandType -> Available valid hands
 	 */
-	@SuppressWarnings("unchecked")
 	protected void populateValidHands(TreeSet<Card> cards) {
-		Rank lastRank = null;
-		ArrayList<Card> ofAKind = new ArrayList<Card>();
-		ArrayList<Card> straight = new ArrayList<Card>();
-		HashMap<Suit, TreeSet<Card>> suits;
-		
-		// Initialize suit map.
-		suits = new HashMap<Suit, TreeSet<Card>>();
-		suits.put(Suit.CLUBS, new TreeSet<Card>());
-		suits.put(Suit.DIAMONDS, new TreeSet<Card>());
-		suits.put(Suit.HEARTS, new TreeSet<Card>());
-		suits.put(Suit.SPADES, new TreeSet<Card>());
-		
-		// Clear existing hands.
-		for (int t : validHands.keySet()) {
-			TreeSet<Hand> hands = validHands.get(t);
-			hands.clear();
+		populateValidHands(CardSet.maskOf(cards));
+	}
+	
+	/**
+	 * Enumerate all valid hands (moves, and getHands()).
+	 * @param cards Card mask held by Player
+	 */
+	protected void populateValidHands(long cards) {
+		index.rebuild(cards);
+		viewCurrent = false;
+	}
+	
+	/**
+	 * Enumerate all valid hands of a card mask, sorted, into lists by size.
+	 * Shared with the EndgameSolver. Results are kept in the shared MoveCache.
+	 * @param cards Card mask
+	 * @param moves Lists for sizes 1 - 5 (index 0 unused)
+	 */
+	static void generateMoves(long cards, MoveList[] moves) {
+		MoveCache cache = MoveCache.getShared();
+		if (cache != null && cache.get(cards, moves)) {
+			if (Metrics.isEnabled()) {
+				countMoves(moves);
+			}
+			return;
 		}
-				
-		Iterator<Card> iter = cards.iterator();
-		while (iter.hasNext()) {
-			Card c = iter.next();
-			
-			// High card
-			validHands.get(1).add(new Hand(Arrays.asList(c)));
-					
-			// If rank is changing, update of-a-kind hands and check for straights
-			if (lastRank == null || c.getRank() != lastRank) {
-				if (lastRank != null && ((lastRank.getScore() >> 1) != c.getRank().getScore())) {
-					straight.clear();
-				} 
-				
-				straight.add(c);
-				lastRank = c.getRank();
-				
-				// X of a kind.
-				if (ofAKind.size() > 1) {
-					validHands.get(ofAKind.size()).add(new Hand(ofAKind));
-				}
-				
-				ofAKind.clear();
-				
-				// Straight or straight flush
-				if (straight.size() == 5) {
-					validHands.get(5).add(new Hand(straight));
-					
-					// Keep rolling list of last 5 consecutive ranks...
-					straight.remove(0);
-				}
-			} 
+		
+		for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+			moves[i].clear();
+		}
+		
+		// High card and X of a kind.
+		for (int r = 0; r < 13; r++) {
+			long ofRank = cards & CardSet.rankCards(r);
 			
-			// Rolling X-of-a-kind
-			ofAKind.add(c);
-			if (ofAKind.size() > 1) {
-				validHands.get(ofAKind.size()).add(new Hand(ofAKind));
+			for (int n = 1; n <= Long.bitCount(ofRank); n++) {
+				addCombinations(moves[n], ofRank, n, 0L);
 			}
-			
-			// Remember the suits
-			TreeSet<Card> ofSuit = suits.get(c.getSuit());
-			ofSuit.add(c);
 		}
 		
-		// Flushes
-		for (Suit s : suits.keySet()) {
-			TreeSet<Card> suitCards = suits.get(s);
+		MoveList fives = moves[5];
+		
+		// Straights and straight flushes: each run of 5 ranks held, 
+		// with every choice of suit for each rank.
+		int held = CardSet.rankMask(cards);
+		for (int low = 0; low + 5 <= 13; low++) {
+			int window = 0x1F << low;
+			if ((held & window) == window) {
+				addStraights(fives, cards, low, low + 5, 0L);
+			}
+		}
+		
+		// Flushes: every 5 cards of a suit.
+		// Straight flushes come up again here, sort() drops the duplicates.
+		for (int s = 0; s < 4; s++) {
+			long suitCards = cards & CardSet.suitCards(s);
 			
-			// Make a flush with the highest top card and then the lowest kickers.
-			if (suitCards.size() > 5) {
-				if (suitCards.size() == 5) {
-					validHands.get(5).add(new Hand(suitCards));
-				} else {
-					TreeSet<Card> flush = new TreeSet<Card>();
-					flush.add(suitCards.first());
-					
-					for (int i = 0; i < 4; i++) {
-						Card next = suitCards.last();
-						flush.add(next);
-						suitCards.remove(next);
-					}
-					
-					validHands.get(5).add(new Hand(flush));
-				}
+			if (Long.bitCount(suitCards) >= 5) {
+				addCombinations(fives, suitCards, 5, 0L);
 			}
 		}
 		
 		// Full Houses
-		TreeSet<Hand> trips = validHands.get(3);
-		TreeSet<Hand> pairs = validHands.get(2);
-		
-		if (trips.size() > 0 && (trips.size() > 1 || pairs.size() > trips.size())) {
-			Iterator<Hand> tripsIter = trips.iterator();
-			while (tripsIter.hasNext()) {
-				Hand t = tripsIter.next();
-				Iterator<Hand> pairIter = pairs.iterator();
-				while (pairIter.hasNext()) {
-					Hand p = pairIter.next();
-					
-					if (t.getHighCard().getRank() != p.getHighCard().getRank()) {
-						TreeSet<Card> fh = new TreeSet<Card>(t.getCards());
-						fh.addAll(p.getCards());
-						validHands.get(5).add(new Hand(fh));
-					}
+		MoveList trips = moves[3];
+		MoveList pairs = moves[2];
+		for (int t = 0; t < trips.size(); t++) {
+			long tripCards = PackedHand.mask(trips.get(t));
+			
+			for (int p = 0; p < pairs.size(); p++) {
+				long pairCards = PackedHand.mask(pairs.get(p));
+				
+				if ((CardSet.highIndex(tripCards) >> 2) != (CardSet.highIndex(pairCards) >> 2)) {
+					fives.add(PackedHand.of(tripCards | pairCards));
 				}
 			}
 		}
 		
 		// Quads with Kicker
-		TreeSet<Hand> quads = validHands.get(4);
-		if (quads.size() > 0) {
-			Iterator<Hand> quadsIter = quads.iterator();
-			while (quadsIter.hasNext()) {
-				Hand quadHand = quadsIter.next();
-
-				TreeSet<Hand> highCardHands = validHands.get(1);
-				if (highCardHands.size() > 0) {
-					Iterator<Hand> highCardIter = validHands.get(1).iterator();
-					while (highCardIter.hasNext()) {
-						Hand h = highCardIter.next();
-						if (h.getHighCard().getRank() != quadHand.getHighCard().getRank()) {
-							TreeSet<Card> qk = new TreeSet<Card>(quadHand.getCards());
-							qk.addAll(h.getCards());
-							validHands.get(5).add(new Hand(qk));
-						}
-					}
-				}
+		MoveList quads = moves[4];
+		for (int q = 0; q < quads.size(); q++) {
+			long quadCards = PackedHand.mask(quads.get(q));
+			
+			for (long m = cards & ~quadCards; m != 0; m &= m - 1) {
+				fives.add(PackedHand.of(quadCards | (m & -m)));
+			}
+		}
+		
+		for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+			moves[i].sort();
+		}
+		
+		if (cache != null) {
+			cache.put(cards, moves);
+		}
+		
+		if (Metrics.isEnabled()) {
+			countMoves(moves);
+		}
+	}
+	
+	/**
+	 * Add the hands generated, from the cache or not, to Metrics.
+	 */
+	private static void countMoves(MoveList[] moves) {
+		int total = 0;
+		for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+			total += moves[i].size();
+		}
+		
+		Metrics.countHandsEnumerated(total);
+	}
+	
+	/**
+	 * Rebuild validHands from moves.
+	 */
+	private void buildHandView() {
+		if (validHands == null) {
+			validHands = new HashMap<Integer, TreeSet<Hand>>();
+			for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+				validHands.put(i, new TreeSet<Hand>(HAND_ORDER));
 			}
 		}
+		
+		for (int i = 1; i <= Rules.MAX_HAND_SIZE; i++) {
+			TreeSet<Hand> hands = validHands.get(i);
+			hands.clear();
+			
+			for (int j = 0; j < moves[i].size(); j++) {
+				hands.add(PackedHand.toHand(moves[i].get(j)));
+			}
+		}
+		
+		viewCurrent = true;
+	}
+	
+	/**
+	 * Add every k card combination of a mask.
+	 * @param from Cards to choose from
+	 * @param k Cards still to choose
+	 * @param chosen Cards chosen so far
+	 */
+	private static void addCombinations(MoveList hands, long from, int k, long chosen) {
+		if (k == 0) {
+			hands.add(PackedHand.of(chosen));
+			return;
+		}
+		
+		for (long m = from; Long.bitCount(m) >= k; m &= m - 1) {
+			long card = m & -m;
+			addCombinations(hands, m & ~card, k - 1, chosen | card);
+		}
+	}
+	
+	/**
+	 * Add every straight over ranks [rank, end), one card of each rank.
+	 */
+	private static void addStraights(MoveList hands, long cards, int rank, int end, long chosen) {
+		if (rank == end) {
+			hands.add(PackedHand.of(chosen));
+			return;
+		}
+		
+		for (long m = cards & CardSet.rankCards(rank); m != 0; m &= m - 1) {
+			addStraights(hands, cards, rank + 1, end, chosen | (m & -m));
+		}
 	}
 }
@@ -1,15 +1,13 @@
 package poker.player.bots;
 
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 import poker.Card;
 import poker.Hand;
 import poker.Logger;
+import poker.PackedHand;
 
 /**
  * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
@@ -22,60 +20,41 @@ import poker.Logger;
 
 public class RandomBot extends PlayerAIBase {
 	
-	private int cardHash;
-	private Random rand;
+	private SplittableRandom rand;
 	
 	public RandomBot() {
 		super();		
-		cardHash = 0;
-		rand = new Random(System.currentTimeMillis());
+		rand = new SplittableRandom();
+	}
+	
+	@Override
+	public void setSeed(long seed) {
+		rand = new SplittableRandom(seed);
 	}
 	
 	public Hand getNextHand(TreeSet<Card> cards, Hand last, ArrayList<Hand> previous) {
-		if (cards.hashCode() != cardHash) {
-			cardHash = cards.hashCode();
-			populateValidHands(cards);
-		}
+		updateValidHands(cards);
 		
 		// opening bid must include lowest card...
 		// for now always open just single card low
 		if (previous == null || previous.size() == 0) {
-			return validHands.get(1).last();
+			return PackedHand.toHand(moves[1].get(0));
 		}
 		
 		else if (last == null) {
-			Hand h = null;
+			MoveList hands;
 			do {
-				int type = rand.nextInt(5) + 1;
-				TreeSet<Hand> hands = validHands.get(type);
-				
-				if (hands.size() > 0) {
-					if (hands.size() == 1) {
-						h = hands.first();
-					} else {
-						Iterator<Hand> iter = hands.iterator();
-						int i = 0, numToSkip = rand.nextInt(hands.size() - 1);
-						while (i++ < numToSkip) iter.next();
-						h = iter.next();
-					}
-				}
-			} while (h == null);
+				hands = moves[rand.nextInt(5) + 1];
+			} while (hands.isEmpty());
 			
-			return h;			
+			return PackedHand.toHand(hands.get(rand.nextInt(hands.size())));
 		} else {
-			TreeSet<Hand> hands = validHands.get(last.getSize());
-			
-			if (hands.isEmpty()) {
-				return null;
-			}
+			MoveList hands = moves[last.getSize()];
 			
-			List<Hand> valid = hands.stream().filter(h -> h.getScore() > last.getScore()).collect(Collectors.toList());
-			if (valid.size() > 0) {
-				if (valid.size() == 1) {
-					return valid.get(0);
-				} else {
-					return valid.get(rand.nextInt(valid.size()));
-				}
+			// Hands from here to the end of the list all beat the last one.
+			int first = hands.indexAbove(PackedHand.of(last));
+			if (first < hands.size()) {
+				return PackedHand.toHand(hands.get(first + rand.nextInt(hands.size() - first)));
 			}
 		}
 		
@@ -0,0 +1,57 @@
+package poker.player.bots;
+
+import poker.PackedHand;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ * Simulated seat for MonteCarloBot rollouts.
+ * Plays like MatthewBot (lowest hand that is allowed) directly on card
+ * masks and packed hands, so a rollout never builds Hand or Card objects.
+ */
+
+final class RolloutSeat {
+	private final MoveIndex index = new MoveIndex();
+	private final MoveList[] moves = index.moves;
+	private long cards;
+	
+	/**
+	 * Give the seat a new set of cards.
+	 * @param cardMask Card mask
+	 */
+	void deal(long cardMask) {
+		cards = cardMask;
+		index.update(cards);
+	}
+	
+	long getCards() {
+		return cards;
+	}
+	
+	/**
+	 * Play the lowest hand that beats last, removing its cards.
+	 * @param last Packed hand to beat, or PackedHand.NONE when leading
+	 * @return Packed hand played, or PackedHand.NONE to pass
+	 */
+	long play(long last) {
+		long play = PackedHand.NONE;
+		
+		if (last == PackedHand.NONE) {
+			// Lead the lowest card.
+			play = moves[1].get(0);
+		} else {
+			MoveList hands = moves[PackedHand.size(last)];
+			int i = hands.indexAbove(last);
+			
+			if (i < hands.size()) {
+				play = hands.get(i);
+			}
+		}
+		
+		if (play != PackedHand.NONE) {
+			cards &= ~PackedHand.mask(play);
+			index.update(cards);
+		}
+		
+		return play;
+	}
+}
@@ -0,0 +1,66 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import poker.CardSet;
+import poker.Hand;
+import poker.Utils;
+import poker.io.CardFormatter;
+import poker.io.CardParser;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class CardFormatterTest {
+
+	@Test
+	public void testFormat() {
+		long mask = new Hand("5c Td As").getMask();
+		assertThat(CardFormatter.format(mask), is("As Td 5c"));
+		assertThat(CardFormatter.format(CardSet.EMPTY), is(""));
+		assertThat(CardFormatter.label(0), is("2c"));
+		assertThat(CardFormatter.label(51), is("As"));
+		
+		// same as the Card labels, high card first
+		assertThat(Utils.getCardString(CardSet.toTreeSet(mask)), is("As Td 5c"));
+		
+		SplittableRandom random = new SplittableRandom(21);
+		for (int i = 0; i < 1000; i++) {
+			long m = random.nextLong() & CardSet.ALL;
+			String text = CardFormatter.format(m);
+			assertThat(text.length(), is(CardFormatter.length(m)));
+			assertThat(CardParser.parse(text), is(m));
+		}
+	}
+	
+	@Test
+	public void testReusedOutput() {
+		long a = new Hand("Kh Kd").getMask();
+		long b = new Hand("2s").getMask();
+		
+		StringBuilder sb = new StringBuilder();
+		CardFormatter.append(sb, a).append(" / ");
+		CardFormatter.append(sb, b);
+		assertThat(sb.toString(), is("Kh Kd / 2s"));
+		
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		CardFormatter.put(buffer, a).put((byte) '\n');
+		CardFormatter.put(buffer, b);
+		assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII), is("Kh Kd\n2s"));
+	}
+	
+	@Test
+	public void testHandString() {
+		Hand h = new Hand("Qs Qc 3d");
+		assertThat(h.toString(), is("Qs Qc 3d"));
+		assertThat(h.toString(), sameInstance(h.toString()));
+	}
+}
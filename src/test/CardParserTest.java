@@ -0,0 +1,137 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import poker.Hand;
+import poker.Utils;
+import poker.io.CardParser;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class CardParserTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testParse() {
+		long mask = new Hand("As Td 5c").getMask();
+		
+		assertThat(CardParser.parse("As Td 5c"), is(mask));
+		assertThat(CardParser.parse("AsTd5c"), is(mask));
+		assertThat(CardParser.parse(" as,\ttD , 5C\r"), is(mask));
+		assertThat(CardParser.parse("As 10d 5c"), is(mask));
+		assertThat(CardParser.parse(""), is(0L));
+		assertThat(CardParser.parse("xx As Td 5c yy", 3, 11), is(mask));
+		
+		assertThat(Utils.getCardsFromString("As Td 5c").size(), is(3));
+		assertThat(Utils.getCardsFromString("As Tx"), equalTo(null));
+	}
+	
+	@Test
+	public void testErrors() {
+		assertError("Xs", 0);
+		assertError("As Tx", 4);
+		assertError("As T", 4);
+		assertError("As 5c As", 6);
+		assertError("As 1c", 3);
+		assertError("As;Td", 2);
+		assertError("As \u00e9d", 3);
+		assertError("xx As Zd", 3, 9, 6);
+	}
+	
+	@Test
+	public void testLines() {
+		String text = "As Td\n5c\r\n\nKx\n2c 2d";
+		ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+		long[] masks = new long[8];
+		
+		// the last line waits for more input unless the text ends there
+		assertThat(CardParser.parseLines(buffer, masks, false), is(4));
+		assertThat(masks[0], is(new Hand("As Td").getMask()));
+		assertThat(masks[1], is(new Hand("5c").getMask()));
+		assertThat(masks[2], is(0L));
+		assertThat(CardParser.errorPosition(masks[3]), is(1));
+		assertThat(buffer.position(), is(text.indexOf("2c")));
+		
+		assertThat(CardParser.parseLines(buffer, masks, true), is(1));
+		assertThat(masks[0], is(new Hand("2c 2d").getMask()));
+		assertThat(buffer.hasRemaining(), is(false));
+		
+		// a vertical tab next to a newline is not a newline
+		buffer = ByteBuffer.wrap("2c\u000b\n3c 3d\n".getBytes(StandardCharsets.US_ASCII));
+		assertThat(CardParser.parseLines(buffer, masks, true), is(2));
+		assertThat(CardParser.errorPosition(masks[0]), is(2));
+		assertThat(masks[1], is(new Hand("3c 3d").getMask()));
+		
+		// stops when the array is full
+		buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+		assertThat(CardParser.parseLines(buffer, new long[2], true), is(2));
+		assertThat(buffer.position(), is(text.indexOf("\n\n") + 1));
+	}
+	
+	@Test
+	public void testFile() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			text.append(i % 2 == 0 ? "Ah Ad\n" : "2c 3c 4c 5c 6c\n");
+		}
+		
+		Path file = folder.newFile("hands.txt").toPath();
+		Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+		
+		List<Long> masks = new ArrayList<Long>();
+		assertThat(CardParser.parseLines(file, masks::add), is(10000L));
+		assertThat(masks.get(0), is(new Hand("Ah Ad").getMask()));
+		assertThat(masks.get(9999), is(new Hand("2c 3c 4c 5c 6c").getMask()));
+	}
+	
+	@Test
+	public void testFileWindows() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			text.append(i == 777 ? "Ah Ad 5x\n" : "2c 3c 4c 5c 6c\n");
+		}
+		
+		Path file = folder.newFile("windows.txt").toPath();
+		Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+		
+		// a bad line in a later window is reported by its column
+		List<Long> masks = new ArrayList<Long>();
+		assertThat(CardParser.parseLines(file, 100, masks::add), is(1000L));
+		assertThat(CardParser.isError(masks.get(777)), is(true));
+		assertThat(CardParser.errorPosition(masks.get(777)), is(7));
+		assertThat(masks.get(778), is(new Hand("2c 3c 4c 5c 6c").getMask()));
+		
+		try {
+			CardParser.parseLines(file, 10, masks::add);
+			fail("line longer than the window");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+	
+	private static void assertError(String text, int position) {
+		assertError(text, 0, text.length(), position);
+	}
+	
+	private static void assertError(String text, int from, int to, int position) {
+		long result = CardParser.parse(text, from, to);
+		assertThat(text, CardParser.isError(result), is(true));
+		assertThat(text, CardParser.errorPosition(result), is(position));
+	}
+}
@@ -0,0 +1,79 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+import poker.Card;
+import poker.CardSet;
+import poker.Deck;
+import poker.Utils;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class CardSetTest {
+
+	@Test
+	public void testIndex() {
+		assertThat(Card.ofValue("2c").getIndex(), is(0));
+		assertThat(Card.ofValue("2s").getIndex(), is(3));
+		assertThat(Card.ofValue("3c").getIndex(), is(4));
+		assertThat(Card.ofValue("As").getIndex(), is(51));
+		
+		for (int i = 0; i < 52; i++) {
+			assertThat(Card.ofIndex(i).getIndex(), is(i));
+		}
+	}
+	
+	@Test
+	public void testAddRemove() {
+		CardSet set = new CardSet();
+		assertThat(set.isEmpty(), is(true));
+		assertThat(set.add(Card.ofValue("5s")), is(true));
+		assertThat(set.add(Card.ofValue("5s")), is(false));
+		assertThat(set.add(Card.ofValue("Kd")), is(true));
+		assertThat(set.size(), is(2));
+		assertThat(set.contains(Card.ofValue("Kd")), is(true));
+		assertThat(set.contains(Card.ofValue("Kh")), is(false));
+		
+		assertThat(set.remove(Card.ofValue("Kd")), is(true));
+		assertThat(set.remove(Card.ofValue("Kd")), is(false));
+		assertThat(set.size(), is(1));
+	}
+	
+	@Test
+	public void testContainsAll() {
+		CardSet held = new CardSet(Utils.getCardsFromString("As Ad 5c 5h 2d"));
+		assertThat(held.containsAll(new CardSet(Utils.getCardsFromString("5c 5h"))), is(true));
+		assertThat(held.containsAll(new CardSet(Utils.getCardsFromString("5c 5s"))), is(false));
+		
+		held.removeAll(new CardSet(Utils.getCardsFromString("5c 5h")).getMask());
+		assertThat(held.toString(), equalTo("[As, Ad, 2d]"));
+	}
+	
+	@Test
+	public void testOrderMatchesTreeSet() {
+		Deck deck = new Deck();
+		deck.shuffle();
+		ArrayList<Card> cards = deck.getCards();
+		
+		TreeSet<Card> tree = new TreeSet<Card>(cards.subList(0, 13));
+		CardSet set = new CardSet(tree);
+		
+		assertThat(set.first(), equalTo(tree.first()));
+		assertThat(set.last(), equalTo(tree.last()));
+		assertThat(set.toTreeSet(), equalTo(tree));
+		
+		ArrayList<Card> iterated = new ArrayList<Card>();
+		for (Card c : set) {
+			iterated.add(c);
+		}
+		
+		assertThat(iterated, equalTo(new ArrayList<Card>(tree)));
+	}
+}
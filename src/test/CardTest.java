@@ -5,6 +5,7 @@ import static org.hamcrest.CoreMatchers.*;
 import org.junit.Test;
 
 import poker.Card;
+import poker.enums.HandType;
 import poker.enums.Rank;
 import poker.enums.Suit;
 
@@ -33,6 +34,31 @@ public class CardTest {
 	public void testInvalidCard() {
 		Card c = Card.ofValue("13f");
 		assertThat(c, equalTo(null));
+		assertThat(Card.ofValue("1c"), equalTo(null));
+		assertThat(Card.ofValue("Ax"), equalTo(null));
+		assertThat(Card.of('\u00e9', 'c'), equalTo(null));
+	}
+	
+	@Test
+	public void testLookups() {
+		for (int i = 0; i < 52; i++) {
+			Card c = Card.ofIndex(i);
+			String label = c.toString();
+			
+			// every lookup returns the one instance of a card
+			assertThat(Card.ofValue(label), sameInstance(c));
+			assertThat(Card.ofValue(label.toLowerCase()), sameInstance(c));
+			assertThat(Card.of(label.charAt(0), Character.toUpperCase(label.charAt(1))), sameInstance(c));
+			assertThat(Card.of(c.getRank(), c.getSuit()), sameInstance(c));
+			assertThat(Rank.ofValue(c.getRank().getId()), is(c.getRank()));
+			assertThat(Suit.ofValue(c.getSuit().getId()), is(c.getSuit()));
+		}
+		
+		assertThat(Card.getAllCards().size(), is(52));
+		assertThat(Rank.ofValue(0), equalTo(null));
+		assertThat(Rank.ofValue(14), equalTo(null));
+		assertThat(Suit.ofValue("x"), equalTo(null));
+		assertThat(HandType.valueOf(4), is(HandType.QUADS));
 	}
 
 }
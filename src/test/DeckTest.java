@@ -52,4 +52,41 @@ public class DeckTest {
 		}
 	}
 
+	
+	@Test
+	public void testSeededShuffle() {
+		Deck a = new Deck(1234L);
+		Deck b = new Deck(1234L);
+		Deck c = new Deck(4321L);
+		
+		a.shuffle();
+		b.shuffle();
+		c.shuffle();
+		assertThat(a.getCards(), equalTo(b.getCards()));
+		assertThat(a.getCards().equals(c.getCards()), is(false));
+		
+		// streams derived from one master seed differ from each other
+		assertThat(Deck.deriveSeed(99L, 0) == Deck.deriveSeed(99L, 1), is(false));
+		assertThat(Deck.deriveSeed(99L, 7), is(Deck.deriveSeed(99L, 7)));
+	}
+	
+	@Test
+	public void testShuffleUniform() {
+		Deck deck = new Deck(7L);
+		int shuffles = 52 * 1000;
+		int[] onTop = new int[52];
+		
+		for (int i = 0; i < shuffles; i++) {
+			deck.shuffle();
+			onTop[deck.getNextCard().getIndex()]++;
+		}
+		
+		// each card should be on top about 1000 times (chi-square, 51 dof, p ~ 0.001)
+		double chiSquare = 0;
+		for (int count : onTop) {
+			chiSquare += (count - 1000.0) * (count - 1000.0) / 1000.0;
+		}
+		
+		assertThat(chiSquare < 87.0, is(true));
+	}
 }
@@ -0,0 +1,99 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import poker.GameRecord;
+import poker.GameResults;
+import poker.Tournament;
+import poker.enums.HandType;
+import poker.io.GameLogReader;
+import poker.io.GameLogStats;
+import poker.io.GameLogWriter;
+import poker.io.MappedGameLog;
+import poker.player.Player;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.RandomBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class GameLogStatsTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Mapped, chunked and parallel totals must match a plain sequential read
+	 * and the tournament's own results.
+	 */
+	@Test
+	public void testMappedMatchesSequential() throws IOException {
+		Path first = folder.newFile("first.log").toPath();
+		Path second = folder.newFile("second.log").toPath();
+		List<GameResults> results = record(first, 1000, 1);
+		record(second, 500, 2);
+		
+		GameLogStats expected = new GameLogStats();
+		for (Path file : new Path[] { first, second }) {
+			try (GameLogReader reader = GameLogReader.open(file)) {
+				GameRecord record = new GameRecord();
+				while (reader.next(record)) {
+					expected.add(record);
+				}
+			}
+		}
+		
+		// small chunks so there are plenty of them
+		try (MappedGameLog log = new MappedGameLog(4096, first, second)) {
+			assertThat(log.getGameCount(), is(1500L));
+			assertTrue(log.getChunkCount() > 10);
+			
+			GameLogStats stats = GameLogStats.of(log);
+			assertThat(stats.toString(), equalTo(expected.toString()));
+			assertThat(stats.getGames(), is(1500L));
+			assertThat(stats.getOpenings(HandType.HIGH_CARD) + stats.getOpenings(HandType.PAIR), is(1500L));
+		}
+		
+		try (MappedGameLog log = new MappedGameLog(first)) {
+			GameLogStats stats = GameLogStats.of(log);
+			for (GameResults r : results) {
+				int position = r.getPlayer().getPosition();
+				assertThat(stats.getScore(position), is((long) r.getScore()));
+				
+				for (int place = 0; place < 4; place++) {
+					assertThat(stats.getPlaces(position, place), is((long) r.getResults()[place]));
+				}
+			}
+		}
+	}
+	
+	@Test(expected = IOException.class)
+	public void testNotALog() throws IOException {
+		Path file = folder.newFile("empty.log").toPath();
+		new MappedGameLog(file).close();
+	}
+	
+	private List<GameResults> record(Path file, int games, long seed) throws IOException {
+		try (GameLogWriter writer = GameLogWriter.open(file)) {
+			Tournament tournament = new Tournament(Arrays.asList(
+				new Player(Player.BOT, Player.NORTH, "North", new MatthewBot()),
+				new Player(Player.BOT, Player.EAST, "East", new RandomBot()),
+				new Player(Player.BOT, Player.SOUTH, "South", new MatthewBot()),
+				new Player(Player.BOT, Player.WEST, "West", new RandomBot())));
+			tournament.setSeed(seed);
+			tournament.setRecorder(writer);
+			return tournament.run(games);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import poker.Game;
+import poker.GameRecord;
+import poker.GameState;
+import poker.PackedHand;
+import poker.Tournament;
+import poker.io.GameLogReader;
+import poker.io.GameLogWriter;
+import poker.player.Player;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.RandomBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class GameLogTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Every recorded game must replay legally to the finishing order Game returned.
+	 */
+	@Test
+	public void testRecordsReplay() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		List<String> finishes = new ArrayList<String>();
+		
+		try (GameLogWriter writer = new GameLogWriter(Channels.newChannel(bytes))) {
+			for (int i = 0; i < 200; i++) {
+				Game game = new Game(lineup(), i);
+				game.setRecorder(writer);
+				
+				StringBuilder order = new StringBuilder();
+				for (Player p : game.run()) {
+					order.append(p.getPosition());
+				}
+				finishes.add(order.toString());
+			}
+			
+			assertThat(writer.getGamesWritten(), is(200L));
+			writer.flush();
+			assertThat(writer.getBytesWritten(), is((long) bytes.size()));
+		}
+		
+		GameLogReader reader = new GameLogReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+		GameRecord record = new GameRecord();
+		int games = 0;
+		
+		while (reader.next(record)) {
+			assertThat(finishOrder(record), equalTo(finishes.get(games)));
+			assertThat(replay(record), equalTo(finishes.get(games)));
+			games++;
+		}
+		
+		assertThat(games, is(200));
+		reader.close();
+	}
+	
+	@Test
+	public void testTournamentToFile() throws IOException {
+		Path file = folder.newFile("games.log").toPath();
+		
+		try (GameLogWriter writer = GameLogWriter.open(file)) {
+			Tournament tournament = new Tournament(lineup());
+			tournament.setThreadCount(3);
+			tournament.setRecorder(writer);
+			tournament.run(500);
+		}
+		
+		int games = 0;
+		try (GameLogReader reader = GameLogReader.open(file)) {
+			GameRecord record = new GameRecord();
+			while (reader.next(record)) {
+				assertThat(record.getSeatCount(), is(4));
+				assertThat(replay(record), equalTo(finishOrder(record)));
+				games++;
+			}
+		}
+		
+		assertThat(games, is(500));
+	}
+	
+	@Test(expected = IOException.class)
+	public void testTruncated() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GameLogWriter writer = new GameLogWriter(Channels.newChannel(bytes))) {
+			Game game = new Game(lineup(), 1);
+			game.setRecorder(writer);
+			game.run();
+		}
+		
+		byte[] cut = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 3);
+		GameLogReader reader = new GameLogReader(Channels.newChannel(new ByteArrayInputStream(cut)));
+		reader.next(new GameRecord());
+	}
+	
+	@Test(expected = IOException.class)
+	public void testNotALog() throws IOException {
+		new GameLogReader(Channels.newChannel(new ByteArrayInputStream("hello world".getBytes())));
+	}
+	
+	/**
+	 * Positions in finishing order.
+	 */
+	private String finishOrder(GameRecord record) {
+		StringBuilder ret = new StringBuilder();
+		for (int p = 0; p < record.getFinishCount(); p++) {
+			ret.append(record.getPosition(record.getFinisher(p)));
+		}
+		
+		return ret.toString();
+	}
+	
+	/**
+	 * Replay the turns on a GameState, checking each one.
+	 * @return positions in finishing order
+	 */
+	private String replay(GameRecord record) {
+		long[] deals = new long[record.getSeatCount()];
+		for (int s = 0; s < deals.length; s++) {
+			deals[s] = record.getDeal(s);
+		}
+		
+		GameState state = new GameState(deals);
+		for (int t = 0; t < record.getTurnCount(); t++) {
+			long mask = record.getTurnMask(t);
+			long move = mask == 0 ? PackedHand.NONE : PackedHand.of(mask);
+			
+			assertThat(state.getToMove(), is(record.getTurnSeat(t)));
+			assertTrue(state.isLegal(move));
+			state.apply(move);
+		}
+		
+		assertTrue(state.isGameOver());
+		StringBuilder ret = new StringBuilder();
+		for (int p = 0; p < state.getFinishCount(); p++) {
+			ret.append(record.getPosition(state.getFinisher(p)));
+		}
+		
+		return ret.toString();
+	}
+	
+	private List<Player> lineup() {
+		return Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", new MatthewBot()),
+			new Player(Player.BOT, Player.EAST, "East", new RandomBot()),
+			new Player(Player.BOT, Player.SOUTH, "South", new MatthewBot()),
+			new Player(Player.BOT, Player.WEST, "West", new RandomBot()));
+	}
+}
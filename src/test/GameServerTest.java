@@ -0,0 +1,263 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import poker.CardSet;
+import poker.io.CardFormatter;
+import poker.io.CardParser;
+import poker.net.GameServer;
+import poker.player.bots.MatthewBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class GameServerTest {
+	private GameServer server;
+	private ExecutorService clients;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new GameServer(2);
+		server.setBots(2, MatthewBot::new);
+		server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		clients = Executors.newCachedThreadPool();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		clients.shutdownNow();
+		server.close();
+	}
+
+	@Test
+	public void testManyTables() throws Exception {
+		List<Future<String>> results = new ArrayList<Future<String>>();
+		for (int i = 0; i < 20; i++) {
+			String name = "Client" + i;
+			results.add(clients.submit(() -> {
+				try (ScriptedClient c = new ScriptedClient(server.getPort())) {
+					c.send("JOIN " + name);
+					return c.play();
+				}
+			}));
+		}
+
+		// every client finishes its game
+		for (Future<String> f : results) {
+			String result = f.get(30, TimeUnit.SECONDS);
+			assertThat(result.matches("RESULT [1-4] 4"), is(true));
+		}
+
+		assertThat(server.getTableManager().getTablesCreated(), is(10L));
+		waitFor(() -> server.getTableManager().getTablesFinished() == 10);
+		assertThat(server.getTableManager().getActiveTables(), is(0));
+	}
+
+	@Test
+	public void testProtocolErrors() throws Exception {
+		try (ScriptedClient a = new ScriptedClient(server.getPort());
+				ScriptedClient b = new ScriptedClient(server.getPort())) {
+			a.send("HELLO");
+			assertThat(a.next(), is("ERROR unknown command"));
+			a.send("PASS");
+			assertThat(a.next(), is("ERROR not your turn"));
+			a.send("JOIN two words");
+			assertThat(a.next(), is("ERROR bad name"));
+			a.send("JOIN Alice");
+			assertThat(a.next(), is("JOINED Alice"));
+			a.send("JOIN Alice");
+			assertThat(a.next(), is("ERROR already joined"));
+
+			b.send("JOIN Bob");
+			assertThat(b.next(), is("JOINED Bob"));
+			assertThat(a.next(), is("SEATED 1 1 Alice Bob Bot1 Bot2"));
+			assertThat(b.next(), is("SEATED 1 2 Alice Bob Bot1 Bot2"));
+
+			// whoever moves first sends a bad card, then a hand they do not hold
+			ScriptedClient first = null;
+			String hand = null;
+			while (first == null) {
+				for (ScriptedClient c : new ScriptedClient[] { a, b }) {
+					String line = c.ready() ? c.next() : "";
+					if (line.startsWith("HAND ")) {
+						hand = line;
+						first = c;
+						break;
+					}
+				}
+				Thread.sleep(1);
+			}
+
+			first.nextMatching("TURN");
+			first.send("PLAY 5c Xx");
+			assertThat(first.nextMatching("ERROR"), is("ERROR bad card at column 9"));
+
+			long held = CardParser.parse(hand, 5, hand.length());
+			long notHeld = CardSet.lowest(~held & CardSet.ALL, 1);
+			first.send("PLAY " + CardFormatter.format(notHeld));
+			assertThat(first.nextMatching("INVALID").startsWith("INVALID -"), is(true));
+
+			// the turn is asked again, and both clients finish the game
+			Future<String> aResult = clients.submit(a::play);
+			Future<String> bResult = clients.submit(b::play);
+			assertThat(aResult.get(30, TimeUnit.SECONDS).startsWith("RESULT"), is(true));
+			assertThat(bResult.get(30, TimeUnit.SECONDS).startsWith("RESULT"), is(true));
+		}
+	}
+
+	@Test
+	public void testDisconnect() throws Exception {
+		Future<String> stays = clients.submit(() -> {
+			try (ScriptedClient c = new ScriptedClient(server.getPort())) {
+				c.send("JOIN Stays");
+				return c.play();
+			}
+		});
+
+		try (ScriptedClient leaves = new ScriptedClient(server.getPort())) {
+			leaves.send("JOIN Leaves");
+			leaves.nextMatching("SEATED");
+		}
+
+		// the table carries on with the lost seat passing
+		assertThat(stays.get(30, TimeUnit.SECONDS).startsWith("RESULT"), is(true));
+		waitFor(() -> server.getTableManager().getTablesFinished() == 1 && server.getConnectionCount() == 0);
+	}
+
+	@Test
+	public void testDisconnectBeforeTurn() throws Exception {
+		// each leaver goes as soon as the player before it has moved, while
+		// the table is on its way to ask the leaver's seat
+		List<Future<String>> results = new ArrayList<Future<String>>();
+		for (int i = 0; i < 10; i++) {
+			String name = "Client" + i;
+			boolean leaves = i % 2 == 0;
+			results.add(clients.submit(() -> {
+				try (ScriptedClient c = new ScriptedClient(server.getPort())) {
+					c.send("JOIN " + name);
+					if (!leaves) {
+						return c.play();
+					}
+
+					String[] seated = c.nextMatching("SEATED").split(" ");
+					int position = Integer.parseInt(seated[2]);
+					String before = seated[3 + (position + seated.length - 5) % (seated.length - 3)];
+					return c.playUntil("MSG " + before + " played");
+				}
+			}));
+		}
+
+		// a seat that is gone never holds up its table
+		for (Future<String> f : results) {
+			assertThat(f.get(30, TimeUnit.SECONDS).startsWith("ERROR"), is(false));
+		}
+		waitFor(() -> server.getTableManager().getTablesFinished() == 5 && server.getConnectionCount() == 0);
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long end = System.currentTimeMillis() + 10000;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.currentTimeMillis() < end, is(true));
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Plays by the simplest legal strategy: lead the lowest card,
+	 * otherwise pass.
+	 */
+	private static class ScriptedClient implements AutoCloseable {
+		private final Socket socket;
+		private final BufferedReader in;
+		private final PrintWriter out;
+
+		ScriptedClient(int port) throws IOException {
+			socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			socket.setSoTimeout(30000);
+			in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+			out = new PrintWriter(socket.getOutputStream(), true);
+		}
+
+		void send(String line) {
+			out.print(line + "\r\n");
+			out.flush();
+		}
+
+		boolean ready() throws IOException {
+			return in.ready();
+		}
+
+		String next() throws IOException {
+			String line = in.readLine();
+			assertNotNull("connection closed", line);
+			return line;
+		}
+
+		String nextMatching(String prefix) throws IOException {
+			String line;
+			do {
+				line = next();
+			} while (!line.startsWith(prefix));
+
+			return line;
+		}
+
+		/**
+		 * Play to the end of the game.
+		 * @return The RESULT line
+		 */
+		String play() throws IOException {
+			return playUntil("RESULT ");
+		}
+
+		/**
+		 * Play until a line starting with a prefix, or the end of the game.
+		 * @return That line, or the RESULT line
+		 */
+		String playUntil(String prefix) throws IOException {
+			long held = CardSet.EMPTY;
+			while (true) {
+				String line = next();
+
+				if (line.startsWith(prefix)) {
+					return line;
+				} else if (line.startsWith("HAND ")) {
+					held = CardParser.parse(line, 5, line.length());
+				} else if (line.equals("TURN")) {
+					send("PLAY " + CardFormatter.label(CardSet.lowIndex(held)));
+				} else if (line.startsWith("TURN ")) {
+					send("PASS");
+				} else if (line.startsWith("RESULT ") || line.startsWith("INVALID") || line.startsWith("ERROR")) {
+					return line;
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			socket.close();
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import poker.CardSet;
+import poker.Deck;
+import poker.GameState;
+import poker.Hand;
+import poker.PackedHand;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class GameStateTest {
+
+	@Test
+	public void testRoundsAndFinish() {
+		GameState state = new GameState(mask("3c Ad"), mask("4c 5d"), mask("6c 7h"));
+		GameState start = new GameState(state);
+		
+		assertThat(state.getToMove(), is(0));
+		assertFalse(state.isLegal(packed("Ad")));
+		
+		long[] moves = { packed("3c"), packed("4c"), packed("6c"), packed("Ad"), PackedHand.NONE, PackedHand.NONE };
+		for (long move : moves) {
+			assertTrue(state.toString(), state.isLegal(move));
+			state.apply(move);
+		}
+		
+		// Ad was seat 0's last card: it finishes and seat 1 leads
+		assertThat(state.getFinishCount(), is(1));
+		assertThat(state.getFinisher(0), is(0));
+		assertThat(state.getToMove(), is(1));
+		assertThat(state.getLast(), is(PackedHand.NONE));
+		assertFalse(state.isLegal(packed("6c")));
+		
+		state.apply(packed("5d"));
+		assertTrue(state.isGameOver());
+		assertThat(state.getFinisher(1), is(1));
+		assertThat(state.getFinisher(2), is(2));
+		
+		state.undo(packed("5d"));
+		assertThat(state.getFinishCount(), is(1));
+		assertTrue(state.isActive(1));
+		
+		for (int i = moves.length - 1; i >= 0; i--) {
+			state.undo(moves[i]);
+		}
+		assertThat(state, equalTo(start));
+	}
+	
+	@Test
+	public void testRoundEndsWhenAllPass() {
+		GameState state = new GameState(mask("3c 9d"), mask("4c 5d"), mask("6c 7h"));
+		state.apply(packed("3c"));
+		state.apply(PackedHand.NONE);
+		state.apply(PackedHand.NONE);
+		
+		assertThat(state.getToMove(), is(0));
+		assertThat(state.getLast(), is(PackedHand.NONE));
+		assertThat(state.getStartingCard(), is(CardSet.EMPTY));
+	}
+	
+	@Test
+	public void testReset() {
+		long[] seats = { mask("3c 9d"), CardSet.EMPTY, mask("6c 7h") };
+		GameState state = new GameState(mask("4c Ad"), mask("5d"), mask("8c 8h"));
+		state.apply(packed("4c"));
+		state.apply(packed("5d"));
+		
+		// the same as a new state, history and finishers included
+		state.reset(seats, 2, packed("9d"), 0);
+		GameState fresh = new GameState(seats, 2, packed("9d"), 0);
+		assertThat(state, is(fresh));
+		assertThat(state.getPly(), is(0));
+		assertThat(state.getFinishCount(), is(1));
+		assertThat(state.getFinisher(0), is(1));
+		assertThat(state.getLastSeat(), is(0));
+		
+		try {
+			state.reset(new long[] { mask("3c"), mask("4c") }, 0, PackedHand.NONE, 0);
+			fail("seat count changed");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testRandomGamesUndo() {
+		SplittableRandom random = new SplittableRandom(7);
+		
+		for (int game = 0; game < 200; game++) {
+			GameState state = new GameState(deal(random));
+			ArrayList<GameState> snapshots = new ArrayList<GameState>();
+			ArrayList<Long> moves = new ArrayList<Long>();
+			
+			while (!state.isGameOver()) {
+				long move = randomSingle(state, random);
+				snapshots.add(new GameState(state));
+				moves.add(move);
+				state.apply(move);
+			}
+			
+			for (int i = moves.size() - 1; i >= 0; i--) {
+				state.undo(moves.get(i));
+				assertThat(state, equalTo(snapshots.get(i)));
+			}
+		}
+	}
+	
+	@Test
+	public void testApplyUndoDoesNotAllocate() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		
+		SplittableRandom random = new SplittableRandom(11);
+		GameState state = new GameState(deal(random));
+		long[] moves = new long[1024];
+		long threadId = Thread.currentThread().getId();
+		
+		// the cost of the measurement itself
+		long start = threads.getThreadAllocatedBytes(threadId);
+		long overhead = threads.getThreadAllocatedBytes(threadId) - start;
+		int allocating = 0;
+		
+		for (int i = 0; i < 2000; i++) {
+			long before = threads.getThreadAllocatedBytes(threadId);
+			int count = 0;
+			while (!state.isGameOver()) {
+				moves[count] = randomSingle(state, random);
+				state.apply(moves[count++]);
+			}
+			while (count > 0) {
+				state.undo(moves[--count]);
+			}
+			long after = threads.getThreadAllocatedBytes(threadId);
+			
+			if (i >= 1000 && after - before > overhead) {
+				allocating++;
+			}
+		}
+		
+		// a stray allocation from the JIT is not the game allocating
+		assertThat(allocating <= 5, is(true));
+	}
+	
+	/**
+	 * A random legal single, or pass when allowed.
+	 */
+	private long randomSingle(GameState state, SplittableRandom random) {
+		long cards = state.getCards(state.getToMove());
+		int count = 0;
+		long choice = PackedHand.NONE;
+		
+		// reservoir sample the legal singles
+		for (long m = cards; m != 0; m &= m - 1) {
+			long move = PackedHand.of(m & -m);
+			if (state.isLegal(move) && random.nextInt(++count) == 0) {
+				choice = move;
+			}
+		}
+		
+		boolean mustPlay = state.getLast() == PackedHand.NONE;
+		if (!mustPlay && random.nextInt(4) == 0) {
+			return PackedHand.NONE;
+		}
+		
+		return choice;
+	}
+	
+	private long[] deal(SplittableRandom random) {
+		Deck deck = new Deck(random.nextLong());
+		deck.shuffle();
+		
+		long[] cards = new long[4];
+		for (int i = 0; i < 52; i++) {
+			cards[i % 4] |= deck.getNextCard().getMask();
+		}
+		
+		return cards;
+	}
+	
+	private long mask(String cards) {
+		return new Hand(cards).getMask();
+	}
+	
+	private long packed(String cards) {
+		return PackedHand.of(new Hand(cards));
+	}
+}
@@ -2,13 +2,16 @@ package test;
 
 import static org.junit.Assert.*;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.*;
 
+import org.junit.Assume;
 import org.junit.Test;
 
 import poker.Card;
@@ -36,18 +39,18 @@ public class GameTest {
 		bob.setCards(Utils.getCardsFromString("AhAdTh"));
 		
 		game.run(1); // execute single round
-		assertThat(aliceBot.plays, is(2)); // 2c -> Ks
+		assertThat(aliceBot.plays, is(2)); // 2c -> Kc
 		assertThat(aliceBot.passes, is(1));
-		assertThat(alice.getCards().toString(), equalTo("[Kc]"));
+		assertThat(alice.getCards().toString(), equalTo("[Ks]"));
 		assertThat(bobBot.plays, is(2));
 		assertThat(bobBot.passes, is(0));
-		assertThat(bob.getCards().toString(), equalTo("[Ad]"));		
+		assertThat(bob.getCards().toString(), equalTo("[Ah]"));		
 		assertThat(game.getNextPlayer(), equalTo(bob));
 		
 		game.run(1); // next round
 		assertThat(aliceBot.plays, is(2));
 		assertThat(aliceBot.passes, is(1));
-		assertThat(alice.getCards().toString(), equalTo("[Kc]"));
+		assertThat(alice.getCards().toString(), equalTo("[Ks]"));
 		assertThat(bobBot.plays, is(3));
 		assertThat(bobBot.passes, is(0));
 		assertThat(bob.getCards().size(), is(0));
@@ -56,6 +59,76 @@ public class GameTest {
 		assertThat(game.getCurrentResults().get(0), equalTo(bob));
 	}
 	
+	/**
+	 * With bot-only players and logging off, the turn loop allocates nothing.
+	 * Uses a bot that allocates nothing itself so Game is all that is measured.
+	 */
+	@Test
+	public void testTurnLoopDoesNotAllocate() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		
+		List<Player> players = Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", new SinglesBot()),
+			new Player(Player.BOT, Player.EAST, "East", new SinglesBot()),
+			new Player(Player.BOT, Player.SOUTH, "South", new SinglesBot()),
+			new Player(Player.BOT, Player.WEST, "West", new SinglesBot()));
+		
+		long threadId = Thread.currentThread().getId();
+		
+		// the cost of the measurement itself
+		long start = threads.getThreadAllocatedBytes(threadId);
+		long overhead = threads.getThreadAllocatedBytes(threadId) - start;
+		int allocating = 0;
+		
+		for (int i = 0; i < 20000; i++) {
+			Game game = new Game(players);
+			game.run(1); // first round builds the players' card views
+			
+			long before = threads.getThreadAllocatedBytes(threadId);
+			game.run();
+			long after = threads.getThreadAllocatedBytes(threadId);
+			
+			// measure once warmed up
+			if (i >= 19000 && after - before > overhead) {
+				allocating++;
+			}
+		}
+		
+		// a stray allocation from the JIT is not the game allocating
+		assertThat(allocating <= 5, is(true));
+	}
+	
+	/**
+	 * Plays the lowest single card that beats the last, else passes.
+	 * Uses preallocated hands only.
+	 */
+	private static class SinglesBot extends PlayerAIBase {
+		private static final Hand[] SINGLES = new Hand[52];
+		static {
+			for (int i = 0; i < 52; i++) {
+				SINGLES[i] = new Hand(Card.ofIndex(i).getMask());
+			}
+		}
+		
+		@Override
+		public Hand getNextHand(TreeSet<Card> cards, Hand last, ArrayList<Hand> previous) {
+			if (last == null) {
+				return SINGLES[cards.last().getIndex()];
+			}
+			
+			if (last.getSize() != 1) {
+				return null;
+			}
+			
+			// card order is high to low, so lower() is the next card up
+			Card next = cards.lower(last.getHighCard());
+			return next == null ? null : SINGLES[next.getIndex()];
+		}
+	}
 	
 	/**
 	 * Simple bot for testing
@@ -77,14 +150,14 @@ public class GameTest {
 			
 			if (last == null) {
 				for (int i = 1; i <= 5; i++) {
-					TreeSet<Hand> hands = validHands.get(i);
+					TreeSet<Hand> hands = getHands().get(i);
 					if (hands.size() > 0) {
 						ret = hands.last();
 						break;
 					}
 				}
 			} else {
-				TreeSet<Hand> hands = validHands.get(last.getSize());
+				TreeSet<Hand> hands = getHands().get(last.getSize());
 				
 				if (!hands.isEmpty()) {
 					TreeSet<Hand> valid = new TreeSet<Hand>(hands.stream().filter(h -> h.getScore() > last.getScore()).collect(Collectors.toList()));
@@ -0,0 +1,145 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.SplittableRandom;
+
+import poker.Hand;
+import poker.HandEvaluator;
+import poker.enums.HandType;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class HandEvaluatorTest {
+
+	/**
+	 * Every 1 to 5 card combination must score the same with both evaluators.
+	 */
+	@Test
+	public void testLookupMatchesReference() {
+		HandEvaluator reference = HandEvaluator.reference();
+		HandEvaluator lookup = HandEvaluator.lookup();
+		int[] validBySize = new int[6];
+		int checked = 0;
+		
+		for (int a = 0; a < 52; a++) {
+			long m1 = 1L << a;
+			validBySize[1] += check(reference, lookup, m1);
+			
+			for (int b = a + 1; b < 52; b++) {
+				long m2 = m1 | (1L << b);
+				validBySize[2] += check(reference, lookup, m2);
+				
+				for (int c = b + 1; c < 52; c++) {
+					long m3 = m2 | (1L << c);
+					validBySize[3] += check(reference, lookup, m3);
+					
+					for (int d = c + 1; d < 52; d++) {
+						long m4 = m3 | (1L << d);
+						validBySize[4] += check(reference, lookup, m4);
+						
+						for (int e = d + 1; e < 52; e++) {
+							validBySize[5] += check(reference, lookup, m4 | (1L << e));
+							checked++;
+						}
+					}
+				}
+			}
+		}
+		
+		assertThat(checked, is(2598960));
+		assertThat(validBySize[1], is(52));
+		assertThat(validBySize[2], is(13 * 6));
+		assertThat(validBySize[3], is(13 * 4));
+		assertThat(validBySize[4], is(13));
+		
+		// straights (incl. straight flush) + flushes + full houses + quads with kicker
+		assertThat(validBySize[5], is(9 * 1024 + 4 * (1287 - 9) + 13 * 12 * 4 * 6 + 13 * 48));
+	}
+	
+	@Test
+	public void testSwapDefault() {
+		HandEvaluator previous = HandEvaluator.getDefault();
+		
+		try {
+			HandEvaluator.setDefault(HandEvaluator.reference());
+			Hand h = new Hand("Jd Js Jc Jh Td");
+			assertThat(h.getType(), is(HandType.QUADS_WITH_KICKER));
+			
+			HandEvaluator.setDefault(HandEvaluator.lookup());
+			assertThat(new Hand("Jd Js Jc Jh Td").getScore(), is(h.getScore()));
+		} finally {
+			HandEvaluator.setDefault(previous);
+		}
+	}
+	
+	@Test
+	public void testBatch() {
+		SplittableRandom random = new SplittableRandom(1);
+		long[] masks = new long[100000];
+		for (int i = 0; i < masks.length; i++) {
+			// 1 to 5 distinct random cards
+			int size = 1 + random.nextInt(5);
+			while (Long.bitCount(masks[i]) < size) {
+				masks[i] |= 1L << random.nextInt(52);
+			}
+		}
+		
+		HandEvaluator evaluator = HandEvaluator.getDefault();
+		byte[] types = new byte[masks.length];
+		long[] scores = new long[masks.length];
+		evaluator.evaluate(masks, types, scores);
+		
+		for (int i = 0; i < masks.length; i++) {
+			assertThat(scores[i], is(evaluator.evaluate(masks[i])));
+			assertThat(HandEvaluator.typeOf(types[i]), is(new Hand(masks[i]).getType()));
+		}
+		
+		byte[] parallelTypes = new byte[masks.length];
+		long[] parallelScores = new long[masks.length];
+		evaluator.evaluateParallel(masks, parallelTypes, parallelScores);
+		assertArrayEquals(scores, parallelScores);
+		assertArrayEquals(types, parallelTypes);
+		
+		LongBuffer bufferScores = LongBuffer.allocate(masks.length);
+		LongBuffer bufferMasks = LongBuffer.wrap(masks);
+		evaluator.evaluate(bufferMasks, null, bufferScores);
+		assertThat(bufferMasks.remaining(), is(0));
+		assertArrayEquals(scores, bufferScores.array());
+		
+		// too little room for the results: nothing is consumed
+		bufferMasks.rewind();
+		LongBuffer small = LongBuffer.allocate(masks.length - 1);
+		try {
+			evaluator.evaluate(bufferMasks, null, small);
+			fail("expected BufferOverflowException");
+		} catch (BufferOverflowException e) {
+			assertThat(bufferMasks.position(), is(0));
+			assertThat(small.position(), is(0));
+		}
+		
+		ByteBuffer smallTypes = ByteBuffer.allocate(1);
+		bufferScores.clear();
+		try {
+			evaluator.evaluate(bufferMasks, smallTypes, bufferScores);
+			fail("expected BufferOverflowException");
+		} catch (BufferOverflowException e) {
+			assertThat(bufferMasks.position(), is(0));
+			assertThat(bufferScores.position(), is(0));
+			assertThat(smallTypes.position(), is(0));
+		}
+	}
+	
+	private int check(HandEvaluator reference, HandEvaluator lookup, long mask) {
+		long expected = reference.evaluate(mask);
+		assertEquals(Long.toHexString(mask), expected, lookup.evaluate(mask));
+		return expected == 0 ? 0 : 1;
+	}
+}
@@ -0,0 +1,127 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import poker.Game;
+import poker.Hand;
+import poker.Logger;
+import poker.player.Player;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.RandomBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class LoggerTest {
+
+	@After
+	public void tearDown() {
+		Logger.setLevel(Logger.OFF);
+		Logger.setOutput(System.out);
+		Logger.setCapacity(Logger.DEFAULT_CAPACITY);
+	}
+
+	@Test
+	public void testLevels() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Logger.setOutput(new PrintStream(bytes, true));
+		
+		Logger.setLevel(Logger.OFF);
+		assertThat(Logger.isEnabled(), is(false));
+		Logger.error("not written");
+		
+		Logger.setLevel(Logger.INFO);
+		assertThat(Logger.isEnabled(), is(true));
+		assertThat(Logger.isEnabled(Logger.DEBUG), is(false));
+		Logger.debug("not written");
+		Logger.info("%s played %s", "North", new Hand("5c 5d"));
+		Logger.warn("%d rounds", 12);
+		Logger.info("bad format %d", "x");
+		Logger.flush();
+		
+		String[] lines = bytes.toString().split(System.lineSeparator());
+		assertThat(lines.length, is(3));
+		assertThat(lines[0], is("INFO North played 5d 5c"));
+		assertThat(lines[1], is("WARN 12 rounds"));
+		assertThat(lines[2].startsWith("INFO bad format %d"), is(true));
+		
+		assertThat(Logger.levelOf("debug"), is(Logger.DEBUG));
+		assertThat(Logger.levelOf("OFF"), is(Logger.OFF));
+	}
+	
+	@Test
+	public void testLevelSetAfterGameCreated() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Logger.setOutput(new PrintStream(bytes, true));
+		Logger.setLevel(Logger.OFF);
+		
+		Game game = new Game(Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", new MatthewBot()),
+			new Player(Player.BOT, Player.EAST, "East", new RandomBot())), 3);
+		
+		// a bot-only game created with logging off still logs once it is on
+		Logger.setLevel(Logger.INFO);
+		game.run();
+		Logger.flush();
+		
+		assertThat(bytes.toString().contains("INFO ran for"), is(true));
+	}
+	
+	@Test
+	public void testDropsWhenFull() throws InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		
+		// holds the writer on the first message
+		OutputStream blocking = new OutputStream() {
+			@Override
+			public void write(int b) {
+				bytes.write(b);
+				writing.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		
+		Logger.setCapacity(4);
+		Logger.setOutput(new PrintStream(blocking, true));
+		Logger.setLevel(Logger.INFO);
+		long droppedBefore = Logger.getDropped();
+		
+		Logger.info("first");
+		assertThat(writing.await(10, TimeUnit.SECONDS), is(true));
+		
+		// 4 fit in the ring while the writer is busy, the rest are dropped
+		long start = System.nanoTime();
+		for (int i = 0; i < 100; i++) {
+			Logger.info("message %d", i);
+		}
+		long elapsed = System.nanoTime() - start;
+		
+		assertThat(Logger.getDropped() - droppedBefore, is(96L));
+		assertThat(elapsed < TimeUnit.SECONDS.toNanos(1), is(true));
+		
+		release.countDown();
+		Logger.flush();
+		
+		String text = bytes.toString();
+		assertThat(text.contains("message 3"), is(true));
+		assertThat(text.contains("message 4"), is(false));
+	}
+}
@@ -0,0 +1,98 @@
+package test;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import poker.LatencyHistogram;
+import poker.Metrics;
+import poker.Tournament;
+import poker.player.Player;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.RandomBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class MetricsTest {
+
+	@After
+	public void tearDown() {
+		Metrics.setEnabled(false);
+		Metrics.reset();
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (long v = 1; v <= 100000; v++) {
+			h.record(v);
+		}
+
+		assertEquals(100000, h.getCount());
+		assertEquals(50000.5, h.getMean(), 0.01);
+		assertEquals(100000, h.getMax());
+
+		// within the 1/32 bucket width
+		assertEquals(50000, h.getPercentile(50), 50000 / 32);
+		assertEquals(99000, h.getPercentile(99), 99000 / 32);
+		assertEquals(1, h.getPercentile(0));
+		assertEquals(100000, h.getPercentile(100));
+
+		// small values are exact
+		LatencyHistogram small = new LatencyHistogram();
+		small.record(7);
+		small.record(7);
+		small.record(31);
+		assertEquals(7, small.getPercentile(50));
+		assertEquals(31, small.getPercentile(100));
+
+		h.merge(small);
+		assertEquals(100003, h.getCount());
+
+		h.reset();
+		assertEquals(0, h.getCount());
+		assertEquals(0, h.getPercentile(99));
+	}
+
+	@Test
+	public void testTournament() {
+		List<Player> players = Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", new MatthewBot()),
+			new Player(Player.BOT, Player.EAST, "East", new RandomBot()),
+			new Player(Player.BOT, Player.SOUTH, "South", new MatthewBot()),
+			new Player(Player.BOT, Player.WEST, "West", new RandomBot()));
+
+		// nothing is counted while disabled
+		Metrics.reset();
+		Tournament tournament = new Tournament(players);
+		tournament.setSeed(17);
+		tournament.run(10);
+		assertEquals(0, Metrics.getGames());
+		assertEquals(0, Metrics.getHandsEnumerated());
+		for (LatencyHistogram h : Metrics.getDecisionLatencies().values()) {
+			assertEquals(0, h.getCount());
+		}
+
+		Metrics.setEnabled(true);
+		tournament.run(10);
+		assertEquals(10, Metrics.getGames());
+		assertTrue(Metrics.getGamesPerSecond() > 0);
+		assertTrue(Metrics.getHandsEnumerated() > 0);
+		assertTrue(Metrics.getDecisionLatencies().get("MatthewBot").getCount() > 0);
+		assertTrue(Metrics.getDecisionLatencies().get("RandomBot").getCount() > 0);
+		assertTrue(Metrics.report().contains("MatthewBot"));
+
+		// the players keep their histograms across a reset
+		Metrics.reset();
+		assertEquals(0, Metrics.getDecisionLatencies().get("MatthewBot").getCount());
+		tournament.run(10);
+		assertEquals(10, Metrics.getGames());
+		assertTrue(Metrics.getDecisionLatencies().get("MatthewBot").getCount() > 0);
+		assertTrue(Metrics.getDecisionLatencies().get("RandomBot").getCount() > 0);
+	}
+}
@@ -0,0 +1,103 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import poker.Hand;
+import poker.HandEvaluator;
+import poker.PackedHand;
+import poker.enums.HandType;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class PackedHandTest {
+
+	/**
+	 * Within each size, packed order must match score order.
+	 */
+	@Test
+	public void testOrderMatchesScore() {
+		HandEvaluator evaluator = HandEvaluator.getDefault();
+		ArrayList<ArrayList<Long>> bySize = new ArrayList<ArrayList<Long>>();
+		for (int i = 0; i <= 5; i++) {
+			bySize.add(new ArrayList<Long>());
+		}
+		
+		for (int a = 0; a < 52; a++) {
+			long m1 = 1L << a;
+			add(bySize, m1);
+			
+			for (int b = a + 1; b < 52; b++) {
+				long m2 = m1 | (1L << b);
+				add(bySize, m2);
+				
+				for (int c = b + 1; c < 52; c++) {
+					long m3 = m2 | (1L << c);
+					add(bySize, m3);
+					
+					for (int d = c + 1; d < 52; d++) {
+						long m4 = m3 | (1L << d);
+						add(bySize, m4);
+						
+						for (int e = d + 1; e < 52; e++) {
+							add(bySize, m4 | (1L << e));
+						}
+					}
+				}
+			}
+		}
+		
+		for (int size = 1; size <= 5; size++) {
+			ArrayList<Long> hands = bySize.get(size);
+			Collections.sort(hands);
+			
+			for (int i = 1; i < hands.size(); i++) {
+				long low = hands.get(i - 1), high = hands.get(i);
+				long lowScore = evaluator.evaluate(PackedHand.mask(low));
+				long highScore = evaluator.evaluate(PackedHand.mask(high));
+				
+				assertTrue(Long.toHexString(high), lowScore <= highScore);
+				assertThat(PackedHand.strength(low) < PackedHand.strength(high), is(lowScore < highScore));
+			}
+		}
+	}
+	
+	@Test
+	public void testRoundTrip() {
+		Hand h = new Hand("Jd Js Jc Jh Td");
+		long packed = PackedHand.of(h);
+		
+		assertThat(packed, is(PackedHand.of(h.getMask())));
+		assertThat(PackedHand.type(packed), is(HandType.QUADS_WITH_KICKER));
+		assertThat(PackedHand.size(packed), is(5));
+		assertThat(PackedHand.toHand(packed).getScore(), is(h.getScore()));
+		
+		assertFalse(PackedHand.isValid(PackedHand.of(new Hand("Jd Js Jc Jh Td 9c").getMask())));
+		assertThat(PackedHand.type(PackedHand.NONE), is(HandType.INVALID));
+	}
+	
+	@Test
+	public void testBeats() {
+		long pair = PackedHand.of(new Hand("8c 8d"));
+		long higher = PackedHand.of(new Hand("8h 8s"));
+		long trips = PackedHand.of(new Hand("3c 3d 3h"));
+		
+		assertTrue(PackedHand.beats(higher, pair));
+		assertFalse(PackedHand.beats(pair, higher));
+		assertFalse(PackedHand.beats(trips, pair));
+		assertTrue(PackedHand.above(pair) <= higher);
+	}
+	
+	private void add(ArrayList<ArrayList<Long>> bySize, long mask) {
+		long packed = PackedHand.of(mask);
+		if (PackedHand.isValid(packed)) {
+			bySize.get(Long.bitCount(mask)).add(packed);
+		}
+	}
+}
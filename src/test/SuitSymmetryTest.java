@@ -0,0 +1,74 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import poker.Hand;
+import poker.PackedHand;
+import poker.SuitSymmetry;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class SuitSymmetryTest {
+
+	@Test
+	public void testCanonical() {
+		SplittableRandom random = new SplittableRandom(19);
+		List<Integer> permutations = permutations();
+		assertThat(permutations.size(), is(24));
+		
+		for (int i = 0; i < 1000; i++) {
+			long mask = random.nextLong() & ((1L << 52) - 1);
+			long canonical = SuitSymmetry.canonical(mask);
+			
+			for (int p : permutations) {
+				long permuted = SuitSymmetry.permute(mask, p);
+				assertThat(Long.bitCount(permuted), is(Long.bitCount(mask)));
+				assertThat(SuitSymmetry.permute(permuted, SuitSymmetry.inverse(p)), is(mask));
+				assertThat(SuitSymmetry.canonical(permuted), is(canonical));
+			}
+		}
+		
+		// clubs hold the highest ranks
+		assertThat(SuitSymmetry.canonical(new Hand("2c 3s").getMask()), is(new Hand("3c 2d").getMask()));
+		assertThat(SuitSymmetry.canonical(new Hand("Ah Ad").getMask()), is(new Hand("Ac Ad").getMask()));
+	}
+	
+	@Test
+	public void testPackedHands() {
+		String[] hands = { "7h", "Qd Qs", "5c 5h 5s", "9c 9d 9h 9s", "3c 4d 5h 6s 7c",
+			"2h 6h 9h Jh Kh", "8d 8h 8s 2c 2s", "Jc Jd Jh Js 4h", "9s Ts Js Qs Ks", "2c 9d" };
+		
+		for (String h : hands) {
+			long packed = PackedHand.of(new Hand(h));
+			
+			for (int p : permutations()) {
+				long permuted = PackedHand.permute(packed, p);
+				assertThat(h, permuted, is(PackedHand.of(PackedHand.mask(permuted))));
+			}
+		}
+	}
+	
+	private static List<Integer> permutations() {
+		List<Integer> ret = new ArrayList<Integer>();
+		for (int p = 0; p < 256; p++) {
+			int suits = 0;
+			for (int s = 0; s < 4; s++) {
+				suits |= 1 << SuitSymmetry.target(p, s);
+			}
+			
+			if (suits == 0xF) {
+				ret.add(p);
+			}
+		}
+		
+		return ret;
+	}
+}
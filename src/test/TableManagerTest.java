@@ -0,0 +1,223 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import poker.CardSet;
+import poker.Hand;
+import poker.Rules;
+import poker.Table;
+import poker.TableManager;
+import poker.player.Player;
+import poker.player.GameListener;
+import poker.player.PlayerInput;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.RandomBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class TableManagerTest {
+	private TableManager manager = new TableManager();
+
+	@After
+	public void tearDown() {
+		manager.shutdown();
+	}
+
+	@Test
+	public void testLifecycle() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		Table table = manager.createTable(3);
+		assertThat(table.getState(), is(Table.WAITING));
+		assertThat(manager.getOpenTables(), is(1));
+		assertThat(manager.getTable(table.getId()), is(table));
+
+		Player human = table.join("Human", new LowestCardInput(release));
+		List<String> messages = new CopyOnWriteArrayList<String>();
+		table.observe(new Observer(messages));
+		table.addBot("North", new MatthewBot());
+		assertThat(human.getPosition(), is(1));
+		assertThat(table.getState(), is(Table.WAITING));
+
+		table.addBot("East", new RandomBot());
+		assertThat(table.getState(), is(not(Table.WAITING)));
+
+		// the first time the human is asked, the game waits on them
+		long end = System.currentTimeMillis() + 10000;
+		while (manager.getWaitingSeats() == 0 && table.getState() == Table.PLAYING) {
+			assertThat(System.currentTimeMillis() < end, is(true));
+			Thread.sleep(1);
+		}
+		if (table.getState() == Table.PLAYING) {
+			assertThat(manager.getActiveTables(), is(1));
+		}
+		release.countDown();
+
+		ArrayList<Player> results = table.awaitResults(10000);
+		assertThat(results.size(), is(3));
+		assertThat(table.getState(), is(Table.FINISHED));
+		assertThat(table.getResults(), is(results));
+		assertThat(manager.getActiveTables(), is(0));
+		assertThat(manager.getTablesFinished(), is(1L));
+		assertThat(manager.getTable(table.getId()), is(nullValue()));
+		assertThat(manager.getWaitingSeats(), is(0));
+		assertThat(manager.getDecisionWaits().getCount() > 0, is(true));
+		assertThat(messages.get(0).startsWith("First player: "), is(true));
+		assertThat(messages.stream().anyMatch(m -> m.startsWith("Winner 1")), is(true));
+	}
+
+	@Test
+	public void testObserveInPlay() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		Table table = manager.createTable(2);
+		table.join("Human", new LowestCardInput(release));
+		table.addBot("North", new MatthewBot());
+
+		// the game cannot finish before the human has been asked
+		long end = System.currentTimeMillis() + 10000;
+		while (manager.getWaitingSeats() == 0) {
+			assertThat(System.currentTimeMillis() < end, is(true));
+			Thread.sleep(1);
+		}
+
+		List<String> messages = new CopyOnWriteArrayList<String>();
+		table.observe(new Observer(messages));
+		release.countDown();
+
+		assertThat(table.awaitResults(10000).size(), is(2));
+		assertThat(messages.stream().anyMatch(m -> m.startsWith("Winner 1")), is(true));
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		Table waiting = manager.createTable(2);
+		waiting.addBot("North", new MatthewBot());
+		waiting.cancel();
+		assertThat(waiting.getState(), is(Table.FINISHED));
+		assertThat(waiting.isCancelled(), is(true));
+		assertThat(waiting.awaitResults(0), is(nullValue()));
+		assertThat(manager.getOpenTables(), is(0));
+
+		try {
+			waiting.addBot("East", new MatthewBot());
+			fail("joined a finished table");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		// a human that never moves gives up their moves when cancelled
+		AtomicInteger finished = new AtomicInteger();
+		Table playing = manager.createTable(2);
+		playing.setFinishListener(t -> finished.incrementAndGet());
+		playing.join("Human", new LowestCardInput(new CountDownLatch(1)));
+		playing.addBot("North", new MatthewBot());
+
+		while (manager.getWaitingSeats() == 0 && playing.getState() == Table.PLAYING) {
+			Thread.sleep(1);
+		}
+		playing.cancel();
+
+		assertThat(playing.awaitResults(10000).size(), is(2));
+		assertThat(finished.get(), is(1));
+	}
+
+	@Test
+	public void testDaemonThreads() throws InterruptedException {
+		// the default table threads do not keep the JVM up
+		List<Boolean> daemon = new CopyOnWriteArrayList<Boolean>();
+		Table table = manager.createTable(2);
+		table.observe((format, args) -> daemon.add(Thread.currentThread().isDaemon()));
+		table.addBot("North", new MatthewBot());
+		table.addBot("East", new RandomBot());
+
+		assertThat(table.awaitResults(10000).size(), is(2));
+		assertThat(daemon.isEmpty(), is(false));
+		assertThat(daemon.contains(false), is(false));
+	}
+
+	@Test
+	public void testThreadFactory() throws InterruptedException {
+		AtomicInteger threads = new AtomicInteger();
+		manager.setThreadFactory(r -> {
+			threads.incrementAndGet();
+			return Executors.defaultThreadFactory().newThread(r);
+		});
+
+		List<Table> tables = new ArrayList<Table>();
+		for (int i = 0; i < 50; i++) {
+			Table t = manager.createTable(4);
+			t.addBot("North", new MatthewBot());
+			t.addBot("East", new RandomBot());
+			t.addBot("South", new MatthewBot());
+			t.addBot("West", new RandomBot());
+			tables.add(t);
+		}
+
+		for (Table t : tables) {
+			assertThat(t.awaitResults(10000).size(), is(4));
+		}
+
+		assertThat(threads.get() > 0, is(true));
+		assertThat(manager.getTablesCreated(), is(50L));
+		assertThat(manager.getTablesFinished(), is(50L));
+	}
+
+	/**
+	 * Waits for a latch before each move, then leads the lowest card or
+	 * passes. Interrupted, it gives up the move.
+	 */
+	private static class LowestCardInput implements PlayerInput {
+		private final CountDownLatch release;
+
+		LowestCardInput(CountDownLatch latch) {
+			release = latch;
+		}
+
+		@Override
+		public Hand getPlayerHand(Player p, Hand last) {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return Rules.defaultHand(p.getCardMask(), last);
+			}
+
+			return last == null ? new Hand(CardSet.lowest(p.getCardMask(), 1)) : null;
+		}
+
+		@Override
+		public void raiseInvalidHand(Player p, int errorType) {
+			fail("invalid hand " + errorType);
+		}
+
+		@Override
+		public void postMessage(String format, Object ... args) {
+		}
+	}
+
+	private static class Observer implements GameListener {
+		private final List<String> messages;
+
+		Observer(List<String> list) {
+			messages = list;
+		}
+
+		@Override
+		public void postMessage(String format, Object ... args) {
+			messages.add(String.format(format, args));
+		}
+	}
+}
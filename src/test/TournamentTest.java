@@ -0,0 +1,148 @@
+package test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import poker.Card;
+import poker.GameResults;
+import poker.Hand;
+import poker.Tournament;
+import poker.player.Player;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.RandomBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class TournamentTest {
+
+	@Test
+	public void testResultsMerged() {
+		List<Player> players = Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", new MatthewBot()),
+			new Player(Player.BOT, Player.EAST, "East", new RandomBot()),
+			new Player(Player.BOT, Player.SOUTH, "South", new MatthewBot()),
+			new Player(Player.BOT, Player.WEST, "West", new RandomBot()));
+		
+		Tournament tournament = new Tournament(players);
+		tournament.setThreadCount(3);
+		List<GameResults> results = tournament.run(100);
+		
+		assertThat(results.size(), is(4));
+		
+		// every game awards each place exactly once
+		int[] places = new int[4];
+		int totalScore = 0;
+		for (GameResults r : results) {
+			assertThat(players.contains(r.getPlayer()), is(true));
+			totalScore += r.getScore();
+			
+			for (int i = 0; i < 4; i++) {
+				places[i] += r.getResults()[i];
+			}
+		}
+		
+		for (int i = 0; i < 4; i++) {
+			assertThat(places[i], is(100));
+		}
+		
+		assertThat(totalScore, is(100 * (4 + 3 + 2 + 1)));
+		assertThat(results.get(0).getScore() >= results.get(3).getScore(), is(true));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsHumans() {
+		new Tournament(Arrays.asList(
+			new Player(Player.HUMAN, Player.NORTH, "Human"),
+			new Player(Player.BOT, Player.EAST, "Bot", new MatthewBot())));
+	}
+	
+	@Test
+	public void testSeededRunsRepeat() {
+		List<Player> players = Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", new RandomBot()),
+			new Player(Player.BOT, Player.EAST, "East", new MatthewBot()),
+			new Player(Player.BOT, Player.SOUTH, "South", new RandomBot()));
+		
+		Tournament single = new Tournament(players);
+		single.setThreadCount(1);
+		single.setSeed(2024L);
+		
+		Tournament multi = new Tournament(players);
+		multi.setThreadCount(4);
+		multi.setSeed(2024L);
+		
+		// same games whatever the number of workers
+		assertThat(placings(multi.run(200)), equalTo(placings(single.run(200))));
+	}
+	
+	@Test
+	public void testMoveDeadline() {
+		List<Player> players = Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", new SlowBot()),
+			new Player(Player.BOT, Player.EAST, "East", new MatthewBot()),
+			new Player(Player.BOT, Player.SOUTH, "South", new MatthewBot()),
+			new Player(Player.BOT, Player.WEST, "West", new MatthewBot()));
+		
+		Tournament tournament = new Tournament(players);
+		tournament.setThreadCount(2);
+		tournament.setSeed(7L);
+		tournament.setMoveDeadline(50);
+		
+		// the slow bot's moves are replaced, every game still finishes legally
+		List<GameResults> results = tournament.run(10);
+		int places = 0;
+		for (GameResults r : results) {
+			places += r.getResults()[0];
+			
+			if (r.getPlayer().getPosition() == Player.NORTH) {
+				assertThat(r.getTimeouts() > 0, is(true));
+			} else {
+				assertThat(r.getTimeouts(), is(0));
+			}
+		}
+		
+		assertThat(places, is(10));
+	}
+	
+	/**
+	 * MatthewBot that ignores interrupts and takes 300 ms to lead.
+	 */
+	public static class SlowBot extends MatthewBot {
+		@Override
+		public Hand getNextHand(TreeSet<Card> cards, Hand last, ArrayList<Hand> previous) {
+			if (last == null) {
+				long end = System.nanoTime() + 300000000L;
+				for (long left = 300; left > 0; left = (end - System.nanoTime()) / 1000000L) {
+					try {
+						Thread.sleep(left);
+					} catch (InterruptedException e) {
+						// keep going, as a bot stuck in a search would
+					}
+				}
+			}
+			
+			return super.getNextHand(cards, last, previous);
+		}
+	}
+	
+	private String placings(List<GameResults> results) {
+		StringBuilder ret = new StringBuilder();
+		for (int pos = Player.NORTH; pos <= Player.WEST; pos++) {
+			for (GameResults r : results) {
+				if (r.getPlayer().getPosition() == pos) {
+					ret.append(pos).append(Arrays.toString(r.getResults()));
+				}
+			}
+		}
+		
+		return ret.toString();
+	}
+}
@@ -0,0 +1,115 @@
+package test.bot;
+
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+
+import static org.hamcrest.CoreMatchers.*;
+import org.junit.Test;
+
+import poker.GameState;
+import poker.Hand;
+import poker.PackedHand;
+import poker.player.bots.EndgameSolver;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class EndgameSolverTest {
+
+	@Test
+	public void testTwoPlayerWin() {
+		// leading the pair first wins: the opponent has no pair and the 3s is then led
+		GameState state = new GameState(new long[] { mask("9c 9d 3s"), mask("Ah 5c") }, 0, PackedHand.NONE, 0);
+		EndgameSolver solver = new EndgameSolver();
+		
+		assertThat(solver.solvePlace(state, 0), is(0));
+		assertThat(PackedHand.toHand(solver.solve(state)).toString(), equalTo("9d 9c"));
+	}
+	
+	/**
+	 * Compare with a plain minimax over every legal move on small random positions.
+	 */
+	@Test
+	public void testMatchesMinimax() {
+		SplittableRandom random = new SplittableRandom(3);
+		EndgameSolver solver = new EndgameSolver(1 << 12);
+		
+		for (int n = 0; n < 300; n++) {
+			int seats = 2 + random.nextInt(3);
+			long[] cards = new long[seats];
+			long used = 0;
+			
+			for (int s = 0; s < seats; s++) {
+				int count = 1 + random.nextInt(seats == 2 ? 5 : 3);
+				while (Long.bitCount(cards[s]) < count) {
+					long card = 1L << random.nextInt(52);
+					if ((used & card) == 0) {
+						cards[s] |= card;
+						used |= card;
+					}
+				}
+			}
+			
+			GameState state = new GameState(cards, 0, PackedHand.NONE, 0);
+			int expected = seats - 1 - minimax(state, 0);
+			assertThat(state.toString(), solver.solvePlace(state, 0), is(expected));
+			
+			long move = solver.solve(state);
+			assertTrue(state.isLegal(move));
+			state.apply(move);
+			assertThat(state.toString(), seats - 1 - minimax(state, 0), is(expected));
+		}
+		
+		assertTrue(solver.getNodes() > 0);
+		assertTrue(solver.getNodesPerSecond() > 0);
+	}
+	
+	/**
+	 * Value for root (seat count - 1 - place), every other seat against it.
+	 */
+	private int minimax(GameState state, int root) {
+		if (!state.isActive(root)) {
+			for (int place = 0; ; place++) {
+				if (state.getFinisher(place) == root) {
+					return state.getSeatCount() - 1 - place;
+				}
+			}
+		}
+		
+		boolean maximizing = state.getToMove() == root;
+		int best = maximizing ? -1 : state.getSeatCount();
+		long cards = state.getCards(state.getToMove());
+		
+		// every subset of up to 5 cards that is a legal play
+		for (long sub = cards; sub != 0; sub = (sub - 1) & cards) {
+			if (Long.bitCount(sub) > 5) {
+				continue;
+			}
+			
+			long move = PackedHand.of(sub);
+			if (PackedHand.isValid(move) && state.isLegal(move)) {
+				best = update(state, root, move, best, maximizing);
+			}
+		}
+		
+		if (state.getLast() != PackedHand.NONE) {
+			best = update(state, root, PackedHand.NONE, best, maximizing);
+		}
+		
+		return best;
+	}
+	
+	private int update(GameState state, int root, long move, int best, boolean maximizing) {
+		state.apply(move);
+		int value = minimax(state, root);
+		state.undo(move);
+		
+		return maximizing ? Math.max(best, value) : Math.min(best, value);
+	}
+	
+	private long mask(String cards) {
+		return new Hand(cards).getMask();
+	}
+}
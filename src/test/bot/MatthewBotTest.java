@@ -11,7 +11,9 @@ import static org.hamcrest.CoreMatchers.*;
 import org.junit.Test;
 
 import poker.Card;
+import poker.Deck;
 import poker.Hand;
+import poker.Utils;
 import poker.player.bots.MatthewBot;
 
 /**
@@ -56,4 +58,76 @@ public class MatthewBotTest {
 			}
 		}
 	}
+	
+	@Test
+	public void testIncrementalUpdate() {
+		MatthewBot bot = new MatthewBot();
+		TreeSet<Card> cards = Utils.getCardsFromString("As Ah Ad Ac Qs Qc Js Ts 9s 8s 7d 7c 5s");
+		bot.getNextHand(cards, null, new ArrayList<Hand>());
+		
+		// play cards one hand at a time, the index must match a fresh bot's
+		for (String played : new String[] { "Js", "7d 7c", "As Ah Ad Ac 5s", "Qs" }) {
+			cards.removeAll(Utils.getCardsFromString(played));
+			bot.getNextHand(cards, null, new ArrayList<Hand>());
+			
+			MatthewBot fresh = new MatthewBot();
+			fresh.getNextHand(cards, null, new ArrayList<Hand>());
+			
+			for (int i = 1; i <= 5; i++) {
+				assertThat(bot.getHands().get(i).toString(), equalTo(fresh.getHands().get(i).toString()));
+			}
+		}
+		
+		assertThat(bot.getHands().get(5).size(), is(0));
+		assertThat(bot.getHands().get(1).size(), is(4));
+	}
+	
+	@Test
+	public void testAllHandsEnumerated() {
+		Deck deck = new Deck();
+		
+		for (int deal = 0; deal < 50; deal++) {
+			deck.shuffle();
+			TreeSet<Card> cards = new TreeSet<Card>();
+			for (int i = 0; i < 13; i++) {
+				cards.add(deck.getNextCard());
+			}
+			
+			MatthewBot bot = new MatthewBot();
+			bot.getNextHand(cards, null, new ArrayList<Hand>());
+			
+			// brute force: every subset of up to 5 cards that makes a valid hand
+			int[] expected = new int[6];
+			countValid(new ArrayList<Card>(cards), 0, 0L, expected);
+			
+			for (int i = 1; i <= 5; i++) {
+				assertThat(cards.toString(), bot.getHands().get(i).size(), is(expected[i]));
+			}
+		}
+		
+		// every suit variant of a straight is kept
+		MatthewBot bot = new MatthewBot();
+		bot.getNextHand(Utils.getCardsFromString("9s 9h 8d 7c 6c 5h"), null, new ArrayList<Hand>());
+		assertThat(bot.getHands().get(5).toString(), equalTo("[9s 8d 7c 6c 5h, 9h 8d 7c 6c 5h]"));
+		
+		// a flush of exactly 5 cards is found
+		bot = new MatthewBot();
+		bot.getNextHand(Utils.getCardsFromString("Kd 9d 7d 4d 2d 2c"), null, new ArrayList<Hand>());
+		assertThat(bot.getHands().get(5).toString(), equalTo("[Kd 9d 7d 4d 2d]"));
+	}
+	
+	private void countValid(ArrayList<Card> cards, int next, long chosen, int[] counts) {
+		int size = Long.bitCount(chosen);
+		if (size > 0 && new Hand(chosen).isValid()) {
+			counts[size]++;
+		}
+		
+		if (size == 5) {
+			return;
+		}
+		
+		for (int i = next; i < cards.size(); i++) {
+			countValid(cards, i + 1, chosen | cards.get(i).getMask(), counts);
+		}
+	}
 }
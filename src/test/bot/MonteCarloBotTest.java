@@ -0,0 +1,128 @@
+package test.bot;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import org.junit.Test;
+
+import poker.CardSet;
+import poker.Game;
+import poker.GameState;
+import poker.Hand;
+import poker.PackedHand;
+import poker.Utils;
+import poker.player.Player;
+import poker.player.bots.EndgameSolver;
+import poker.player.bots.MatthewBot;
+import poker.player.bots.MonteCarloBot;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class MonteCarloBotTest {
+	
+	@Test
+	public void testGoesOut() {
+		MonteCarloBot bot = newBot(1);
+		ArrayList<Hand> previous = new ArrayList<Hand>(Arrays.asList(new Hand("3c"), new Hand("6d 6h")));
+		
+		// beating the pair with the last two cards wins outright
+		Hand play = bot.getNextHand(Utils.getCardsFromString("Qs Qh"), new Hand("6d 6h"), previous);
+		assertThat(play.toString(), equalTo("Qs Qh"));
+	}
+	
+	@Test
+	public void testSeededChoicesRepeat() {
+		ArrayList<Hand> previous = new ArrayList<Hand>(Arrays.asList(new Hand("3c"), new Hand("5d"), new Hand("9h")));
+		String cards = "Kd Kc Jh Ts 8s 8c 7d 6h 5c 4s 4d";
+		
+		for (int seed = 0; seed < 5; seed++) {
+			Hand a = newBot(seed).getNextHand(Utils.getCardsFromString(cards), null, previous);
+			Hand b = newBot(seed).getNextHand(Utils.getCardsFromString(cards), null, previous);
+			assertThat(a.toString(), equalTo(b.toString()));
+		}
+	}
+	
+	@Test
+	public void testPlaysLegalGames() {
+		List<Player> players = Arrays.asList(
+			new Player(Player.BOT, Player.NORTH, "North", newBot(0)),
+			new Player(Player.BOT, Player.EAST, "East", new MatthewBot()),
+			new Player(Player.BOT, Player.SOUTH, "South", newBot(0)),
+			new Player(Player.BOT, Player.WEST, "West", new MatthewBot()));
+		
+		// Game throws if a bot plays an invalid hand
+		for (int i = 0; i < 10; i++) {
+			assertThat(new Game(players, i).run().size(), is(4));
+		}
+		
+		// with cards left undealt
+		for (int i = 0; i < 10; i++) {
+			assertThat(new Game(players.subList(0, 2 + i % 2), i).run().size(), is(2 + i % 2));
+		}
+	}
+	
+	@Test
+	public void testTimeBudget() {
+		MonteCarloBot bot = new MonteCarloBot();
+		bot.setRolloutLimit(10000000);
+		bot.setTimeBudget(50);
+		bot.setSeed(1);
+		
+		// leading, with many candidates and far more rollouts than fit in the budget
+		long start = System.nanoTime();
+		Hand play = bot.getNextHand(Utils.getCardsFromString("Kd Kc Jh Ts 8s 8c 7d 6h 5c 4s 4d 3d 2h"), null,
+			new ArrayList<Hand>(Arrays.asList(new Hand("3c"))));
+		long millis = (System.nanoTime() - start) / 1000000;
+		
+		assertThat(play, is(notNullValue()));
+		assertThat("took " + millis + " ms", millis < 2000, is(true));
+	}
+	
+	@Test
+	public void testEndgameTwoPlayers() {
+		// two players left with 3 cards each, everything else played
+		long mine = new Hand("Kd Jc 7h").getMask();
+		long theirs = new Hand("Kh 9c 4c").getMask();
+		ArrayList<Hand> previous = new ArrayList<Hand>();
+		for (long m = CardSet.ALL & ~mine & ~theirs; m != 0; m &= m - 1) {
+			previous.add(new Hand(Long.lowestOneBit(m)));
+		}
+		
+		GameState state = new GameState(new long[] { mine, theirs }, 0, PackedHand.NONE, 0);
+		long solved = new EndgameSolver().solve(new GameState(state));
+		
+		MonteCarloBot bot = newBot(1);
+		bot.setOpponentCards(new int[] { 3 }, 1);
+		Hand play = bot.getNextHand(Utils.getCardsFromString("Kd Jc 7h"), null, previous);
+		assertThat(play.getMask(), is(PackedHand.mask(solved)));
+		assertThat(bot.getEndgameNodesPerSecond() > 0, is(true));
+		
+		// leading the lowest card, as the rollouts would, loses
+		MonteCarloBot greedy = newBot(1);
+		greedy.setEndgameThreshold(0);
+		greedy.setOpponentCards(new int[] { 3 }, 1);
+		Hand greedyPlay = greedy.getNextHand(Utils.getCardsFromString("Kd Jc 7h"), null, previous);
+		assertThat(greedyPlay.toString(), equalTo("7h"));
+		assertThat(placeAfter(state, greedyPlay) > placeAfter(state, play), is(true));
+	}
+	
+	private static int placeAfter(GameState state, Hand move) {
+		GameState after = new GameState(state);
+		after.apply(PackedHand.of(move));
+		return new EndgameSolver().solvePlace(after, 0);
+	}
+	
+	private MonteCarloBot newBot(long seed) {
+		MonteCarloBot bot = new MonteCarloBot();
+		bot.setTimeBudget(0);
+		bot.setRolloutLimit(200);
+		bot.setSeed(seed);
+		return bot;
+	}
+}
@@ -0,0 +1,155 @@
+package test.bot;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.*;
+import org.junit.Test;
+
+import poker.Hand;
+import poker.PackedHand;
+import poker.player.bots.MoveCache;
+import poker.player.bots.MoveList;
+
+/**
+ * @author Charles Williams, Matthew Kauffman, Lorenzo Colmenero
+ */
+
+public class MoveCacheTest {
+
+	@Test
+	public void testHitAndMiss() {
+		MoveCache cache = new MoveCache(64);
+		MoveList[] moves = lists();
+		long cards = new Hand("9c 9d 3s").getMask();
+		
+		assertFalse(cache.get(cards, moves));
+		
+		moves[1].add(PackedHand.of(new Hand("3s")));
+		moves[2].add(PackedHand.of(new Hand("9c 9d")));
+		cache.put(cards, moves);
+		
+		MoveList[] found = lists();
+		found[3].add(1L); // cleared on a hit
+		assertTrue(cache.get(cards, found));
+		assertThat(found[1].get(0), is(moves[1].get(0)));
+		assertThat(found[2].size(), is(1));
+		assertThat(found[3].size(), is(0));
+		
+		assertThat(cache.getHits(), is(1L));
+		assertThat(cache.getMisses(), is(1L));
+		assertThat(cache.getEvictions(), is(0L));
+	}
+	
+	@Test
+	public void testBounded() {
+		MoveCache cache = new MoveCache(16);
+		MoveList[] moves = lists();
+		
+		// clubs only, so no two are suit relabellings of each other
+		for (int i = 1; i <= 52; i++) {
+			cache.put(clubs(i), moves);
+		}
+		
+		assertThat(cache.capacity(), is(16));
+		assertThat(cache.getEvictions(), is(52L - 16));
+		
+		// the most recent entry is still there
+		assertTrue(cache.get(clubs(52), moves));
+		
+		cache.clear();
+		assertFalse(cache.get(clubs(52), moves));
+		assertThat(cache.getMisses(), is(1L));
+	}
+	
+	@Test
+	public void testSuitSymmetry() {
+		MoveCache cache = new MoveCache(64);
+		MoveList[] moves = lists();
+		
+		moves[1].add(PackedHand.of(new Hand("3s")));
+		moves[1].add(PackedHand.of(new Hand("9c")));
+		moves[1].add(PackedHand.of(new Hand("9d")));
+		moves[1].sort();
+		moves[2].add(PackedHand.of(new Hand("9c 9d")));
+		cache.put(new Hand("9c 9d 3s").getMask(), moves);
+		
+		// one entry serves the same shape in other suits
+		MoveList[] found = lists();
+		assertTrue(cache.get(new Hand("9h 9s 3c").getMask(), found));
+		assertThat(found[1].size(), is(3));
+		assertThat(found[1].get(0), is(PackedHand.of(new Hand("3c"))));
+		assertThat(found[1].get(1), is(PackedHand.of(new Hand("9h"))));
+		assertThat(found[1].get(2), is(PackedHand.of(new Hand("9s"))));
+		assertThat(found[2].get(0), is(PackedHand.of(new Hand("9h 9s"))));
+		
+		assertFalse(cache.get(new Hand("9h 9s 4c").getMask(), found));
+	}
+	
+	@Test
+	public void testConcurrentUse() throws Exception {
+		MoveCache cache = new MoveCache(256);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int t = 0; t < 4; t++) {
+				long seed = t;
+				futures.add(pool.submit(() -> {
+					SplittableRandom random = new SplittableRandom(seed);
+					MoveList[] moves = lists();
+					
+					for (int i = 0; i < 20000; i++) {
+						// the entry for a single card holds just that card
+						long card = 1L << random.nextInt(52);
+						if (cache.get(card, moves)) {
+							assertThat(PackedHand.mask(moves[1].get(0)), is(card));
+						} else {
+							moves[1].clear();
+							moves[1].add(PackedHand.of(card));
+							cache.put(card, moves);
+						}
+					}
+				}));
+			}
+			
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		
+		assertThat(cache.getHits() + cache.getMisses(), is(80000L));
+		assertTrue(cache.getHits() > 0);
+	}
+	
+	/**
+	 * Clubs of the ranks in the bits of n.
+	 */
+	private static long clubs(int n) {
+		long ret = 0;
+		for (int r = 0; r < 13; r++) {
+			if ((n & (1 << r)) != 0) {
+				ret |= 1L << (r * 4);
+			}
+		}
+		
+		return ret;
+	}
+	
+	private static MoveList[] lists() {
+		MoveList[] ret = new MoveList[6];
+		for (int i = 1; i < ret.length; i++) {
+			ret[i] = new MoveList();
+		}
+		
+		return ret;
+	}
+}